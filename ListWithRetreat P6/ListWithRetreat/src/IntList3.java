@@ -0,0 +1,616 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Cursor list of {@code int} values with the same model and methods as
+ * {@code List3}, represented as a doubly linked list whose nodes are slots in
+ * parallel arrays of values and links, so no entry is boxed and no node is an
+ * object.
+ *
+ * <p>
+ * Execution-time performance of {@code addRightFront} is amortized O(1), of
+ * {@code toArray} is O(|this|), and of {@code addAll} is amortized
+ * O(|values|). Execution-time performance of all other methods implemented in
+ * this class is O(1).
+ * </p>
+ *
+ * @mathmodel <pre>
+ * type IntList3 is modeled by (
+ *   left: string of int,
+ *   right: string of int
+ * )
+ * </pre>
+ * @initially <pre>
+ * this = (<>, <>)
+ * </pre>
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * |$this.values| = |$this.next| = |$this.previous| >= 2  and
+ * [slot PRE_START is the first node of a doubly linked list, linked through
+ *  $this.next and $this.previous, containing
+ *  ($this.leftLength + $this.rightLength + 2) nodes]  and
+ * [$this.lastLeft is the ($this.leftLength + 1)-th node in that doubly
+ *  linked list]  and
+ * [slot POST_FINISH is the last node in that doubly linked list]  and
+ * [for every node n in the doubly linked list, except PRE_START,
+ *  $this.next[$this.previous[n]] = n]  and
+ * [for every node n in the doubly linked list, except POST_FINISH,
+ *  $this.previous[$this.next[n]] = n]  and
+ * [$this.free is the first of the slots not in the doubly linked list,
+ *  linked through $this.next and ending with NONE, or NONE if every slot is
+ *  in the doubly linked list]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([values in the slots starting at $this.next[PRE_START] and running
+ *    through $this.lastLeft],
+ *   [values in the slots starting at $this.next[$this.lastLeft] and running
+ *    through $this.previous[POST_FINISH]])
+ * </pre>
+ */
+public class IntList3 {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Slot of the "smart node" before the start node of the doubly linked
+     * list.
+     */
+    private static final int PRE_START = 0;
+
+    /**
+     * Slot of the "smart node" after the finish node of the doubly linked
+     * list.
+     */
+    private static final int POST_FINISH = 1;
+
+    /**
+     * Link to no slot, ending the list of free slots.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Number of slots created for a new list.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Values in the slots; irrelevant for smart and free slots.
+     */
+    private int[] values;
+
+    /**
+     * Next slot of each slot in the doubly linked list, or, for a free slot,
+     * the next free slot.
+     */
+    private int[] next;
+
+    /**
+     * Previous slot of each slot in the doubly linked list.
+     */
+    private int[] previous;
+
+    /**
+     * Slot of the last node of the doubly linked list in this.left.
+     */
+    private int lastLeft;
+
+    /**
+     * First free slot, or NONE.
+     */
+    private int free;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * |$this.values| = |$this.next| = |$this.previous| >= 2  and
+     * [slot PRE_START is the first node of a doubly linked list, linked
+     *  through $this.next and $this.previous, containing
+     *  ($this.leftLength + $this.rightLength + 2) nodes]  and
+     * [$this.lastLeft is the ($this.leftLength + 1)-th node in that doubly
+     *  linked list]  and
+     * [slot POST_FINISH is the last node in that doubly linked list]  and
+     * [for every node n in the doubly linked list, except PRE_START,
+     *  $this.next[$this.previous[n]] = n]  and
+     * [for every node n in the doubly linked list, except POST_FINISH,
+     *  $this.previous[$this.next[n]] = n]  and
+     * [$this.free is the first of the slots not in the doubly linked list,
+     *  linked through $this.next and ending with NONE, or NONE if every slot
+     *  is in the doubly linked list]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert (this.values.length == this.next.length)
+                && (this.next.length == this.previous.length)
+                && (this.values.length >= 2) : ""
+                        + "Violation of: |$this.values| = |$this.next| ="
+                        + " |$this.previous| >= 2";
+
+        int count = 0;
+        boolean lastLeftFound = false;
+        int n = PRE_START;
+        while ((count < this.leftLength + this.rightLength + 1)
+                && (n != POST_FINISH)) {
+            count++;
+            if (n == this.lastLeft) {
+                assert count == this.leftLength + 1 : ""
+                        + "Violation of: [$this.lastLeft is the"
+                        + " ($this.leftLength + 1)-th node in that doubly"
+                        + " linked list]";
+                lastLeftFound = true;
+            }
+            int m = this.next[n];
+            assert (0 <= m) && (m < this.next.length)
+                    && (this.previous[m] == n) : ""
+                            + "Violation of: [for every node n in the doubly"
+                            + " linked list, except POST_FINISH,"
+                            + " $this.previous[$this.next[n]] = n]";
+            n = m;
+        }
+        count++;
+        assert count == this.leftLength + this.rightLength + 2 : ""
+                + "Violation of: [slot PRE_START is the first node of a doubly"
+                + " linked list containing ($this.leftLength +"
+                + " $this.rightLength + 2) nodes]";
+        assert lastLeftFound : ""
+                + "Violation of: [$this.lastLeft is the"
+                + " ($this.leftLength + 1)-th node in that doubly linked list]";
+        assert n == POST_FINISH : ""
+                + "Violation of: [slot POST_FINISH is the last node in that"
+                + " doubly linked list]";
+        int freeCount = 0;
+        int f = this.free;
+        while ((f != NONE) && (freeCount < this.next.length)) {
+            freeCount++;
+            f = this.next[f];
+        }
+        assert freeCount + count == this.next.length : ""
+                + "Violation of: [$this.free is the first of the slots not in"
+                + " the doubly linked list, linked through $this.next and"
+                + " ending with NONE]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.values = new int[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.previous = new int[INITIAL_CAPACITY];
+        //Create doubly linked list with two smart nodes
+        this.next[PRE_START] = POST_FINISH;
+        this.previous[POST_FINISH] = PRE_START;
+        this.lastLeft = PRE_START;
+        this.free = NONE;
+        this.addFreeSlots(POST_FINISH + 1);
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Links the slots from {@code first} to the end of the arrays onto the
+     * front of the list of free slots.
+     *
+     * @param first
+     *            the first slot to add
+     * @updates this.next, this.free
+     * @requires [the slots from first to the end of the arrays are not in
+     *           the doubly linked list or the list of free slots]
+     * @ensures [this.free is the first of the slots from first to the end of
+     *          the arrays, followed by #this.free]
+     */
+    private void addFreeSlots(int first) {
+        for (int i = this.next.length - 1; i >= first; i--) {
+            this.next[i] = this.free;
+            this.free = i;
+        }
+    }
+
+    /**
+     * Makes sure there are at least {@code count} free slots, growing the
+     * arrays if there are not.
+     *
+     * @param count
+     *            the number of free slots needed
+     * @updates this.values, this.next, this.previous, this.free
+     * @ensures [there are at least count free slots]
+     */
+    private void ensureFreeSlots(int count) {
+        int used = this.leftLength + this.rightLength + 2;
+        if (this.next.length - used < count) {
+            int oldLength = this.next.length;
+            int newLength = Math.max(2 * oldLength, used + count);
+            this.values = Arrays.copyOf(this.values, newLength);
+            this.next = Arrays.copyOf(this.next, newLength);
+            this.previous = Arrays.copyOf(this.previous, newLength);
+            this.addFreeSlots(oldLength);
+        }
+    }
+
+    /**
+     * Takes a free slot, holding {@code x}, and links it into the doubly
+     * linked list after {@code p}.
+     *
+     * @param p
+     *            the slot to link the new node after
+     * @param x
+     *            the value for the new node
+     * @return the new node's slot
+     * @updates this.values, this.next, this.previous, this.free
+     * @requires [p is in the doubly linked list and is not POST_FINISH]  and
+     *           [there is a free slot]
+     * @ensures [the new node holding x follows p in the doubly linked list]
+     */
+    private int linkAfter(int p, int x) {
+        int n = this.free;
+        this.free = this.next[n];
+        this.values[n] = x;
+        this.next[n] = this.next[p];
+        this.previous[n] = p;
+        this.previous[this.next[p]] = n;
+        this.next[p] = n;
+        return n;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public IntList3() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    /**
+     * Resets {@code this} to an initial value.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sets {@code this} to the incoming value of {@code source}, and resets
+     * {@code source} to an initial value.
+     *
+     * @param source
+     *            the list whose value is transferred
+     * @replaces this
+     * @clears source
+     * @requires source is not null  and  source is not this
+     * @ensures this = #source
+     */
+    public final void transferFrom(IntList3 source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        this.values = source.values;
+        this.next = source.next;
+        this.previous = source.previous;
+        this.lastLeft = source.lastLeft;
+        this.free = source.free;
+        this.leftLength = source.leftLength;
+        this.rightLength = source.rightLength;
+        source.createNewRep();
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        boolean result = false;
+        if (obj == this) {
+            result = true;
+        } else if (obj instanceof IntList3) {
+            IntList3 other = (IntList3) obj;
+            result = (this.leftLength == other.leftLength)
+                    && (this.rightLength == other.rightLength)
+                    && Arrays.equals(this.toArray(), other.toArray());
+        }
+        return result;
+    }
+
+    @Override
+    public final int hashCode() {
+        return 31 * this.leftLength + Arrays.hashCode(this.toArray());
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder sb = new StringBuilder("(<");
+        int n = this.next[PRE_START];
+        while (n != this.next[this.lastLeft]) {
+            sb.append(this.values[n]);
+            n = this.next[n];
+            if (n != this.next[this.lastLeft]) {
+                sb.append(",");
+            }
+        }
+        sb.append(">,<");
+        while (n != POST_FINISH) {
+            sb.append(this.values[n]);
+            n = this.next[n];
+            if (n != POST_FINISH) {
+                sb.append(",");
+            }
+        }
+        sb.append(">)");
+        return sb.toString();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the beginning of {@code this.right}.
+     *
+     * @param x
+     *            the value to be added
+     * @updates this.right
+     * @ensures this.right = <x> * #this.right
+     */
+    public final void addRightFront(int x) {
+        this.ensureFreeSlots(1);
+        this.linkAfter(this.lastLeft, x);
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes and returns the entry at the front of {@code this.right}.
+     *
+     * @return the front entry of {@code this.right}
+     * @updates this.right
+     * @requires this.right /= <>
+     * @ensures #this.right = <removeRightFront> * this.right
+     */
+    public final int removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        int n = this.next[this.lastLeft];
+        int x = this.values[n];
+        //Unlink the node and put its slot on the list of free slots
+        this.next[this.lastLeft] = this.next[n];
+        this.previous[this.next[n]] = this.lastLeft;
+        this.next[n] = this.free;
+        this.free = n;
+        this.rightLength--;
+        assert this.conventionHolds();
+        return x;
+    }
+
+    /**
+     * Advances the position in {@code this} by one.
+     *
+     * @updates this
+     * @requires this.right /= <>
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = |#this.left| + 1
+     * </pre>
+     */
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.lastLeft = this.next[this.lastLeft];
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Moves the position in {@code this} to the beginning.
+     *
+     * @updates this
+     * @ensures <pre>
+     * this.left = <>  and
+     * this.right = #this.left * #this.right
+     * </pre>
+     */
+    public final void moveToStart() {
+        this.lastLeft = PRE_START;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports length of {@code this.left}.
+     *
+     * @return the length of {@code this.left}
+     * @ensures leftLength = |this.left|
+     */
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    /**
+     * Reports length of {@code this.right}.
+     *
+     * @return the length of {@code this.right}
+     * @ensures rightLength = |this.right|
+     */
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the front of {@code this.right}.
+     *
+     * @return the front entry of {@code this.right}
+     * @requires this.right /= <>
+     * @ensures <rightFront> is prefix of this.right
+     */
+    public final int rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        return this.values[this.next[this.lastLeft]];
+    }
+
+    /**
+     * Moves the position in {@code this} to the end.
+     *
+     * @updates this
+     * @ensures <pre>
+     * this.left = #this.left * #this.right  and
+     * this.right = <>
+     * </pre>
+     */
+    public final void moveToFinish() {
+        this.lastLeft = this.previous[POST_FINISH];
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Retreats the position in {@code this} by one.
+     *
+     * @updates this
+     * @requires this.left /= <>
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = |#this.left| - 1
+     * </pre>
+     */
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        this.lastLeft = this.previous[this.lastLeft];
+        this.rightLength++;
+        this.leftLength--;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Returns the entries of {@code this} in an array.
+     *
+     * @return the entries of {@code this.left * this.right}, in order
+     * @ensures toArray = this.left * this.right
+     */
+    public final int[] toArray() {
+        int[] result = new int[this.leftLength + this.rightLength];
+        int n = this.next[PRE_START];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = this.values[n];
+            n = this.next[n];
+        }
+        return result;
+    }
+
+    /**
+     * Adds the entries of {@code values} to the beginning of
+     * {@code this.right}, in order.
+     *
+     * @param values
+     *            the entries to be added
+     * @updates this.right
+     * @requires values is not null
+     * @ensures this.right = values * #this.right
+     */
+    public final void addAll(int[] values) {
+        assert values != null : "Violation of: values is not null";
+        this.ensureFreeSlots(values.length);
+        int p = this.lastLeft;
+        for (int x : values) {
+            p = this.linkAfter(p, x);
+        }
+        this.rightLength += values.length;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Returns an iterator over the entries of {@code this}.
+     *
+     * @return an iterator over the entries of {@code this.left * this.right},
+     *         in order
+     */
+    public final PrimitiveIterator.OfInt iterator() {
+        assert this.conventionHolds();
+        return new IntList3Iterator();
+    }
+
+    /**
+     * Implementation of {@code PrimitiveIterator.OfInt} interface for
+     * {@code IntList3}.
+     */
+    private final class IntList3Iterator implements PrimitiveIterator.OfInt {
+
+        /**
+         * Slot of the current node in the doubly linked list.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        private IntList3Iterator() {
+            this.current = IntList3.this.next[PRE_START];
+            assert IntList3.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != POST_FINISH;
+        }
+
+        @Override
+        public int nextInt() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            int x = IntList3.this.values[this.current];
+            this.current = IntList3.this.next[this.current];
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
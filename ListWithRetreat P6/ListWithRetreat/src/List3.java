@@ -1,5 +1,11 @@
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import components.list.List;
 import components.list.ListSecondary;
@@ -9,7 +15,27 @@ import components.list.ListSecondary;
  * implementations of primary methods and {@code retreat} secondary method.
  *
  * <p>
- * Execution-time performance of all methods implemented in this class is O(1).
+ * The nodes also form an indexable skip list: each node has a randomly chosen
+ * number of upper levels, and each upper-level link records how many nodes it
+ * spans, so the node at any position can be found from the top level down.
+ * Execution-time performance of all methods implemented in this class is O(1),
+ * except {@code addRightFront}, {@code removeRightFront},
+ * {@code moveToPosition}, {@code splice}, {@code split}, and {@code append}
+ * (with a {@code List3} argument), which are O(log |this|) expected.
+ * {@code splice}, {@code split}, and {@code append} relink nodes rather than
+ * copy entries.
+ * </p>
+ *
+ * <p>
+ * A {@code List3} constructed with a positive pool capacity keeps up to that
+ * many removed nodes on a free list and reuses them in {@code addRightFront},
+ * so a list whose length stays within the pool capacity of its peak allocates
+ * no nodes. Removed nodes always have their data cleared, pooled or not.
+ * </p>
+ *
+ * <p>
+ * {@code spliterator} splits a run of nodes at its middle node, found by a
+ * search of the skip list, so {@code parallelStream} can divide the work.
  * </p>
  *
  * @param <T>
@@ -28,7 +54,19 @@ import components.list.ListSecondary;
  * [for every node n in the doubly linked list of nodes, except the one
  *  pointed to by $this.preStart, n.previous.next = n]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.postFinish, n.next.previous = n]
+ *  pointed to by $this.postFinish, n.next.previous = n]  and
+ * [every node n in the doubly linked list has 0 <= n.levels <= MAX_LEVELS,
+ *  and $this.preStart.levels = MAX_LEVELS]  and
+ * [for every i with 0 <= i < MAX_LEVELS, following the links at
+ *  position i of links from $this.preStart visits, in order, the nodes n
+ *  of the doubly linked list with n.levels > i and then $this.postFinish,
+ *  and the entry at position i of spans of each node visited is the number
+ *  of nodes that link moves forward in the doubly linked list]  and
+ * |$this.path| = |$this.pathPositions| = MAX_LEVELS  and
+ * $this.poolCapacity >= 0  and
+ * 0 <= $this.poolSize <= $this.poolCapacity  and
+ * [$this.pool points to the first of $this.poolSize nodes linked by next,
+ *  none of them in the doubly linked list, whose data are null]
  * </pre>
  * @correspondence <pre>
  * this =
@@ -65,8 +103,31 @@ public class List3<T> extends ListSecondary<T> {
          */
         private Node previous;
 
+        /**
+         * Number of upper levels of this node in the skip list.
+         */
+        private int levels;
+
+        /**
+         * Upper-level links: the entry at position i is the next node with
+         * more than i upper levels, or the trailing "smart" Node; null if this
+         * node has never had upper levels.
+         */
+        private Node[] links;
+
+        /**
+         * Number of nodes each upper-level link moves forward in the doubly
+         * linked list; null if this node has never had upper levels.
+         */
+        private int[] spans;
+
     }
 
+    /**
+     * Maximum number of upper levels of a node in the skip list.
+     */
+    private static final int MAX_LEVELS = 15;
+
     /**
      * "Smart node" before start node of doubly linked list.
      */
@@ -82,6 +143,35 @@ public class List3<T> extends ListSecondary<T> {
      */
     private Node postFinish;
 
+    /**
+     * Scratch space for {@code findPath}: the entry at position i is the last
+     * node at or before the position searched for with more than i upper
+     * levels.
+     */
+    private Node[] path;
+
+    /**
+     * Scratch space for {@code findPath}: positions of the nodes in
+     * this.path, with this.preStart at position 0.
+     */
+    private int[] pathPositions;
+
+    /**
+     * Maximum number of removed nodes kept for reuse.
+     */
+    private int poolCapacity;
+
+    /**
+     * First of the removed nodes kept for reuse, linked by next, or null if
+     * there are none.
+     */
+    private Node pool;
+
+    /**
+     * Number of removed nodes kept for reuse.
+     */
+    private int poolSize;
+
     /**
      * Length of this.left.
      */
@@ -112,7 +202,19 @@ public class List3<T> extends ListSecondary<T> {
      * [for every node n in the doubly linked list of nodes, except the one
      *  pointed to by $this.preStart, n.previous.next = n]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.postFinish, n.next.previous = n]
+     *  pointed to by $this.postFinish, n.next.previous = n]  and
+     * [every node n in the doubly linked list has 0 <= n.levels <= MAX_LEVELS,
+     *  and $this.preStart.levels = MAX_LEVELS]  and
+     * [for every i with 0 <= i < MAX_LEVELS, following the links at
+     *  position i of links from $this.preStart visits, in order, the nodes n
+     *  of the doubly linked list with n.levels > i and then $this.postFinish,
+     *  and the entry at position i of spans of each node visited is the number
+     *  of nodes that link moves forward in the doubly linked list]  and
+     * |$this.path| = |$this.pathPositions| = MAX_LEVELS  and
+     * $this.poolCapacity >= 0  and
+     * 0 <= $this.poolSize <= $this.poolCapacity  and
+     * [$this.pool points to the first of $this.poolSize nodes linked by next,
+     *  none of them in the doubly linked list, whose data are null]
      * </pre>
      */
     private boolean conventionHolds() {
@@ -167,6 +269,55 @@ public class List3<T> extends ListSecondary<T> {
         assert n == this.postFinish : ""
                 + "Violation of: [$this.postFinish points to the last"
                 + " node in that doubly linked list]";
+        assert this.preStart.levels == MAX_LEVELS : ""
+                + "Violation of: $this.preStart.levels = MAX_LEVELS";
+        /*
+         * Check the upper levels: walking the doubly linked list, each node
+         * with more than i upper levels, and finally $this.postFinish, must be
+         * reached by the link at position i of the previous such node, with a
+         * span equal to the distance between them
+         */
+        Node[] last = this.newNodeArray(MAX_LEVELS);
+        int[] lastPosition = new int[MAX_LEVELS];
+        Arrays.fill(last, this.preStart);
+        n = this.preStart;
+        int position = 0;
+        while (n != this.postFinish) {
+            n = n.next;
+            position++;
+            assert (0 <= n.levels) && (n.levels <= MAX_LEVELS) : ""
+                    + "Violation of: 0 <= n.levels <= MAX_LEVELS";
+            int levels = n.levels;
+            if (n == this.postFinish) {
+                levels = MAX_LEVELS;
+            }
+            for (int i = 0; i < levels; i++) {
+                assert (last[i].links[i] == n)
+                        && (lastPosition[i] + last[i].spans[i] == position) : ""
+                                + "Violation of: [the links and spans at"
+                                + " position i of links and spans match the"
+                                + " nodes with more than i upper levels]";
+                last[i] = n;
+                lastPosition[i] = position;
+            }
+        }
+        assert (this.path.length == MAX_LEVELS)
+                && (this.pathPositions.length == MAX_LEVELS) : ""
+                        + "Violation of: |$this.path| = |$this.pathPositions|"
+                        + " = MAX_LEVELS";
+        assert this.poolCapacity >= 0 : "Violation of: $this.poolCapacity >= 0";
+        assert (0 <= this.poolSize) && (this.poolSize <= this.poolCapacity) : ""
+                + "Violation of: 0 <= $this.poolSize <= $this.poolCapacity";
+        n = this.pool;
+        for (int i = 0; i < this.poolSize; i++) {
+            assert (n != null) && (n.data == null) : ""
+                    + "Violation of: [$this.pool points to the first of"
+                    + " $this.poolSize nodes linked by next whose data are null]";
+            n = n.next;
+        }
+        assert n == null : ""
+                + "Violation of: [$this.pool points to the first of"
+                + " $this.poolSize nodes linked by next]";
 
         return true;
     }
@@ -183,12 +334,267 @@ public class List3<T> extends ListSecondary<T> {
         this.lastLeft = this.preStart;
         this.rightLength = 0;
         this.leftLength = 0;
+        //Every upper level of the front smart node leads to the end
+        this.setLevels(this.preStart, MAX_LEVELS);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            this.preStart.links[i] = this.postFinish;
+            this.preStart.spans[i] = 1;
+        }
+    }
+
+    /**
+     * Returns a new array of {@code Node}s with the given length.
+     *
+     * @param length
+     *            the length of the array
+     * @return the new array
+     * @ensures |newNodeArray| = length  and  [entries of newNodeArray are null]
+     */
+    @SuppressWarnings("unchecked")
+    private Node[] newNodeArray(int length) {
+        /*
+         * With "new Node[...]" it does not compile, because Node is an inner
+         * class of a generic class; as shown, it results in a warning about an
+         * unchecked cast, though it cannot fail.
+         */
+        return (Node[]) (new List3<?>.Node[length]);
+    }
+
+    /**
+     * Returns a random number of upper levels for a new node: each level is
+     * kept with probability 1/4, up to {@code MAX_LEVELS}.
+     *
+     * @return the number of upper levels
+     * @ensures 0 <= randomLevels <= MAX_LEVELS
+     */
+    private static int randomLevels() {
+        //Two trailing zero bits per level; the set bit caps the count
+        int bits = ThreadLocalRandom.current().nextInt()
+                | (1 << (2 * MAX_LEVELS));
+        return Integer.numberOfTrailingZeros(bits) / 2;
+    }
+
+    /**
+     * Gives {@code p} the given number of upper levels, reusing its arrays of
+     * links and spans if they are long enough.
+     *
+     * @param p
+     *            the node
+     * @param levels
+     *            the number of upper levels
+     * @updates p
+     * @requires 0 <= levels <= MAX_LEVELS
+     * @ensures <pre>
+     * p.levels = levels  and
+     * [if levels > 0 then |p.links| >= levels and |p.spans| >= levels]
+     * </pre>
+     */
+    private void setLevels(Node p, int levels) {
+        p.levels = levels;
+        if ((levels > 0) && ((p.links == null) || (p.links.length < levels))) {
+            p.links = this.newNodeArray(levels);
+            p.spans = new int[levels];
+        }
+    }
+
+    /**
+     * Returns the node at position {@code k} of the doubly linked list, with
+     * this.preStart at position 0, found by a search of the skip list.
+     *
+     * @param k
+     *            the position
+     * @return the node at position k
+     * @requires 0 <= k <= this.leftLength + this.rightLength
+     */
+    private Node nodeAt(int k) {
+        Node x = this.preStart;
+        int position = 0;
+        for (int i = MAX_LEVELS - 1; i >= 0; i--) {
+            while (position + x.spans[i] <= k) {
+                position += x.spans[i];
+                x = x.links[i];
+            }
+        }
+        while (position < k) {
+            x = x.next;
+            position++;
+        }
+        return x;
+    }
+
+    /**
+     * Finds, at each upper level, the last node at or before position
+     * {@code k} of the doubly linked list, as needed to relink nodes after
+     * that position.
+     *
+     * @param k
+     *            the position, with this.preStart at position 0
+     * @updates this.path, this.pathPositions
+     * @requires 0 <= k <= this.leftLength + this.rightLength
+     * @ensures <pre>
+     * [for every i with 0 <= i < MAX_LEVELS, the entry at position i in
+     *  this.path is the last node n at or before position k with
+     *  n.levels > i, and the entry at position i in this.pathPositions is
+     *  its position]
+     * </pre>
+     */
+    private void findPath(int k) {
+        Node x = this.preStart;
+        int position = 0;
+        for (int i = MAX_LEVELS - 1; i >= 0; i--) {
+            while (position + x.spans[i] <= k) {
+                position += x.spans[i];
+                x = x.links[i];
+            }
+            this.path[i] = x;
+            this.pathPositions[i] = position;
+        }
+    }
+
+    /**
+     * Returns a node for a new entry, taken from the pool if it is not empty.
+     *
+     * @return the node
+     * @updates this.pool, this.poolSize
+     * @ensures <pre>
+     * [newNode is not in the doubly linked list, and its data is null]  and
+     * [newNode.levels is chosen at random]  and
+     * if #this.poolSize > 0 then
+     *   [newNode is the first node of #this.pool]  and
+     *   this.poolSize = #this.poolSize - 1
+     * </pre>
+     */
+    private Node newNode() {
+        Node p;
+        if (this.pool == null) {
+            p = new Node();
+        } else {
+            p = this.pool;
+            this.pool = p.next;
+            this.poolSize--;
+        }
+        this.setLevels(p, randomLevels());
+        return p;
+    }
+
+    /**
+     * Clears a node removed from the doubly linked list, and keeps it for
+     * reuse if the pool is not full.
+     *
+     * @param p
+     *            the removed node
+     * @updates this.pool, this.poolSize, p
+     * @requires [p is not in the doubly linked list]
+     * @ensures <pre>
+     * p.data = null  and  p.previous = null  and
+     * [the entries of p.links are null]  and
+     * if #this.poolSize < this.poolCapacity then
+     *   [p is the first node of this.pool]  and
+     *   this.poolSize = #this.poolSize + 1
+     * </pre>
+     */
+    private void recycle(Node p) {
+        p.data = null;
+        p.previous = null;
+        if (p.links != null) {
+            Arrays.fill(p.links, null);
+        }
+        if (this.poolSize < this.poolCapacity) {
+            p.next = this.pool;
+            this.pool = p;
+            this.poolSize++;
+        } else {
+            p.next = null;
+        }
+    }
+
+    /**
+     * Relinks the nodes holding the entries of {@code other} onto the end of
+     * {@code this.right}, at every level of the skip list, and clears
+     * {@code other}.
+     *
+     * @param other
+     *            the list whose nodes are relinked
+     * @updates this
+     * @clears other
+     * @requires other is not this
+     * @ensures this = (#this.left, #this.right * #other.left * #other.right)
+     */
+    private void join(List3<T> other) {
+        int length = this.leftLength + this.rightLength;
+        this.findPath(length);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            /*
+             * The link of this node leads to the smart node at the end, so
+             * continue it with the first link of other at this level instead
+             */
+            Node q = this.path[i];
+            q.links[i] = other.preStart.links[i];
+            q.spans[i] = length - this.pathPositions[i]
+                    + other.preStart.spans[i];
+        }
+        //Link the last node to the first node of other, and take over the
+        //smart node at the end of other
+        Node last = this.postFinish.previous;
+        last.next = other.preStart.next;
+        last.next.previous = last;
+        this.postFinish = other.postFinish;
+        this.rightLength += other.leftLength + other.rightLength;
+        other.createNewRep();
+    }
+
+    /**
+     * Removes {@code this.right} from {@code this}, at every level of the skip
+     * list, and returns it as a new list.
+     *
+     * @return the list holding the entries of {@code #this.right}
+     * @updates this
+     * @ensures this = (#this.left, <>)  and  cut = (<>, #this.right)
+     */
+    private List3<T> cut() {
+        List3<T> right = this.newInstance();
+        int k = this.leftLength;
+        //This list ends at a fresh smart node: the new list's, which it swaps
+        //for the old one, so links leading to the old one need not change
+        Node end = right.postFinish;
+        this.findPath(k);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            Node q = this.path[i];
+            right.preStart.links[i] = q.links[i];
+            right.preStart.spans[i] = this.pathPositions[i] + q.spans[i] - k;
+            q.links[i] = end;
+            q.spans[i] = k + 1 - this.pathPositions[i];
+        }
+        right.preStart.next = this.lastLeft.next;
+        right.preStart.next.previous = right.preStart;
+        right.postFinish = this.postFinish;
+        this.lastLeft.next = end;
+        end.previous = this.lastLeft;
+        this.postFinish = end;
+        right.rightLength = this.rightLength;
+        this.rightLength = 0;
+        return right;
     }
 
     /**
      * No-argument constructor.
      */
     public List3() {
+        this(0);
+    }
+
+    /**
+     * Constructor from pool capacity.
+     *
+     * @param poolCapacity
+     *            maximum number of removed nodes kept for reuse
+     * @requires poolCapacity >= 0
+     */
+    public List3(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+        this.poolCapacity = poolCapacity;
+        this.path = this.newNodeArray(MAX_LEVELS);
+        this.pathPositions = new int[MAX_LEVELS];
         this.createNewRep();
         assert this.conventionHolds();
     }
@@ -197,7 +603,8 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final List3<T> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -233,9 +640,24 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final void addRightFront(T x) {
         assert x != null : "Violation of: x is not null";
-        //Create new node and add the data
-        Node p = new Node();
+        //Get a node, reusing a removed one if there is one, and add the data
+        Node p = this.newNode();
         p.data = x;
+        //Link the new node at each of its upper levels after the last node
+        //at or before last left, and lengthen the links above it
+        int k = this.leftLength;
+        this.findPath(k);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            Node q = this.path[i];
+            if (i < p.levels) {
+                p.links[i] = q.links[i];
+                p.spans[i] = this.pathPositions[i] + q.spans[i] - k;
+                q.links[i] = p;
+                q.spans[i] = k + 1 - this.pathPositions[i];
+            } else {
+                q.spans[i]++;
+            }
+        }
         //Set next in the new node equal to the old front node in the right list
         p.next = this.lastLeft.next;
         //Set previous in the new node equal to the last node in the left list
@@ -253,11 +675,26 @@ public class List3<T> extends ListSecondary<T> {
     public final T removeRightFront() {
         assert this.rightLength() > 0 : "Violation of: this.right /= <>";
         //Remove the first value in the right list
-        T element = this.lastLeft.next.data;
+        Node removed = this.lastLeft.next;
+        T element = removed.data;
+        //Unlink the removed node at each of its upper levels, and shorten the
+        //links above it
+        this.findPath(this.leftLength);
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            Node q = this.path[i];
+            if (q.links[i] == removed) {
+                q.links[i] = removed.links[i];
+                q.spans[i] += removed.spans[i] - 1;
+            } else {
+                q.spans[i]--;
+            }
+        }
         //Set next in last left equal to the second node in the right list
-        this.lastLeft.next = this.lastLeft.next.next;
+        this.lastLeft.next = removed.next;
         //Set previous in the new right front equal to the last left node
         this.lastLeft.next.previous = this.lastLeft;
+        //Release the removed node's data, and keep the node if there is room
+        this.recycle(removed);
         //Decrement right length
         this.rightLength--;
         assert this.conventionHolds();
@@ -354,6 +791,118 @@ public class List3<T> extends ListSecondary<T> {
 
     }
 
+    @Override
+    public final Spliterator<T> spliterator() {
+        assert this.conventionHolds();
+        return new List3Spliterator(this.preStart.next, this.postFinish,
+                this.leftLength + this.rightLength, 0);
+    }
+
+    /**
+     * Implementation of {@code Spliterator} interface for {@code List3}: covers
+     * the entries in a run of consecutive nodes, and splits it at its middle
+     * node, found by a search of the skip list.
+     */
+    private final class List3Spliterator implements Spliterator<T> {
+
+        /**
+         * Node holding the next entry to visit.
+         */
+        private Node current;
+
+        /**
+         * Node after the last entry to visit.
+         */
+        private Node end;
+
+        /**
+         * Number of entries left to visit.
+         */
+        private int remaining;
+
+        /**
+         * Position in the list of the entry in current.
+         */
+        private int position;
+
+        /**
+         * Constructor.
+         *
+         * @param current
+         *            node holding the first entry to visit
+         * @param end
+         *            node after the last entry to visit
+         * @param remaining
+         *            number of entries to visit
+         * @param position
+         *            position in the list of the entry in current
+         */
+        private List3Spliterator(Node current, Node end, int remaining,
+                int position) {
+            this.current = current;
+            this.end = end;
+            this.remaining = remaining;
+            this.position = position;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+            boolean advanced = false;
+            if (this.remaining > 0) {
+                T x = this.current.data;
+                this.current = this.current.next;
+                this.remaining--;
+                this.position++;
+                action.accept(x);
+                advanced = true;
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            assert action != null : "Violation of: action is not null";
+            Node n = this.current;
+            this.current = this.end;
+            this.position += this.remaining;
+            this.remaining = 0;
+            while (n != this.end) {
+                action.accept(n.data);
+                n = n.next;
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = null;
+            if (this.remaining > 1) {
+                int half = this.remaining / 2;
+                //The entry at position p is in the node at position p + 1,
+                //after the smart node in the front
+                Node middle = List3.this.nodeAt(this.position + half + 1);
+                prefix = new List3Spliterator(this.current, middle, half,
+                        this.position);
+                this.current = middle;
+                this.remaining -= half;
+                this.position += half;
+            }
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+    }
+
     /*
      * Other methods (overridden for performance reasons) ---------------------
      */
@@ -368,6 +917,26 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    @Override
+    public final void append(List<T> extension) {
+        assert extension != null : "Violation of: extension is not null";
+        assert extension != this : "Violation of: extension is not this";
+        if (extension instanceof List3<?>) {
+            /*
+             * This cast cannot fail since the instanceof test above guards it:
+             * extension must be of dynamic type List3<?>, and the ? must be T
+             * or the call would not have compiled.
+             */
+            List3<T> localExtension = (List3<T>) extension;
+            //Relink the nodes of extension after the last node
+            this.join(localExtension);
+            assert this.conventionHolds();
+            assert localExtension.conventionHolds();
+        } else {
+            super.append(extension);
+        }
+    }
+
     @Override
     public final void retreat() {
         assert this.leftLength() > 0 : "Violation of: this.left /= <>";
@@ -379,4 +948,96 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    /**
+     * Inserts the entries of {@code other} at the front of {@code this.right}
+     * by relinking its nodes, and clears {@code other}.
+     *
+     * @param other
+     *            the list whose entries are inserted
+     * @updates this
+     * @clears other
+     * @requires other is not this
+     * @ensures <pre>
+     * this = (#this.left, #other.left * #other.right * #this.right)
+     * </pre>
+     */
+    public final void splice(List3<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+        //Cut off the right list, and relink other and then it after last left
+        List3<T> right = this.cut();
+        this.join(other);
+        this.join(right);
+        assert this.conventionHolds();
+        assert other.conventionHolds();
+    }
+
+    /**
+     * Removes {@code this.right} from {@code this} by relinking its nodes,
+     * and returns it as a new list.
+     *
+     * @return the list holding the entries of {@code #this.right}
+     * @updates this
+     * @ensures this = (#this.left, <>)  and  split = (<>, #this.right)
+     */
+    public final List3<T> split() {
+        List3<T> right = this.cut();
+        assert this.conventionHolds();
+        assert right.conventionHolds();
+        return right;
+    }
+
+    /**
+     * Moves the position in {@code this} so that {@code this.left} has
+     * length {@code k}.
+     *
+     * <p>
+     * Execution-time performance is O(log |this|) expected, whether or not
+     * entries have been added or removed since this was last called.
+     * </p>
+     *
+     * @param k
+     *            the length of {@code this.left} after the move
+     * @updates this
+     * @requires 0 <= k <= |this.left| + |this.right|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = k
+     * </pre>
+     */
+    public final void moveToPosition(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.leftLength() + this.rightLength() : ""
+                + "Violation of: k <= |this.left| + |this.right|";
+        //Set last left equal to the k-th node after the smart node in the front
+        this.lastLeft = this.nodeAt(k);
+        this.rightLength += this.leftLength - k;
+        this.leftLength = k;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Returns a sequential {@code Stream} of the entries of {@code this}, in
+     * the order of {@code this.left * this.right}.
+     *
+     * @return the stream
+     * @ensures [stream produces the entries of this.left * this.right, in
+     *          order]
+     */
+    public final Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} of the entries of
+     * {@code this}, in the order of {@code this.left * this.right}.
+     *
+     * @return the stream
+     * @ensures [parallelStream produces the entries of this.left *
+     *          this.right, in order]
+     */
+    public final Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
 }
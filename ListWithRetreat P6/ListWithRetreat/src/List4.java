@@ -0,0 +1,382 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a gap buffer: an array holding the entries of
+ * {@code this.left} at its front and the entries of {@code this.right} at its
+ * back, with the unused slots (the "gap") between them, at the position.
+ *
+ * <p>
+ * Execution-time performance of {@code addRightFront} is amortized O(1), of
+ * {@code moveToStart} is O(|this.left|), and of {@code moveToFinish} is
+ * O(|this.right|). Execution-time performance of all other methods
+ * implemented in this class is O(1). Each entry costs one array slot instead
+ * of a three-field node.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * $this.entries is not null  and
+ * $this.leftLength + $this.rightLength <= |$this.entries|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < |$this.entries|)
+ *   ([entry at position i in $this.entries is not null] iff
+ *    (i < $this.leftLength  or
+ *     i >= |$this.entries| - $this.rightLength))
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries at positions 0 through $this.leftLength - 1 in $this.entries],
+ *   [entries at positions |$this.entries| - $this.rightLength through
+ *    |$this.entries| - 1 in $this.entries])
+ * </pre>
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Length of the array of entries created for a new list.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Array holding this.left at its front and this.right at its back.
+     */
+    private T[] entries;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * $this.entries is not null  and
+     * $this.leftLength + $this.rightLength <= |$this.entries|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |$this.entries|)
+     *   ([entry at position i in $this.entries is not null] iff
+     *    (i < $this.leftLength  or
+     *     i >= |$this.entries| - $this.rightLength))
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.entries != null : "Violation of: $this.entries is not null";
+        assert this.leftLength + this.rightLength <= this.entries.length : ""
+                + "Violation of: $this.leftLength + $this.rightLength"
+                + " <= |$this.entries|";
+
+        int rightStart = this.entries.length - this.rightLength;
+        for (int i = 0; i < this.entries.length; i++) {
+            boolean inUse = (i < this.leftLength) || (i >= rightStart);
+            assert (this.entries[i] != null) == inUse : ""
+                    + "Violation of: [entry at position i in $this.entries"
+                    + " is not null] iff (i < $this.leftLength  or"
+                    + "  i >= |$this.entries| - $this.rightLength)";
+        }
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep() {
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.entries = (T[]) (new Object[INITIAL_CAPACITY]);
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Replaces {@code this.entries} with an array twice as long, keeping
+     * this.left at its front and this.right at its back.
+     *
+     * @updates this.entries
+     * @ensures <pre>
+     * |this.entries| = 2 * |#this.entries|  and
+     * [this.entries holds the same entries of this.left and this.right as
+     *  #this.entries, at the front and back of the array]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        T[] larger = (T[]) (new Object[2 * this.entries.length]);
+        System.arraycopy(this.entries, 0, larger, 0, this.leftLength);
+        System.arraycopy(this.entries, this.entries.length - this.rightLength,
+                larger, larger.length - this.rightLength, this.rightLength);
+        this.entries = larger;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public List4() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.entries = localSource.entries;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        //Make room if the gap is empty
+        if (this.leftLength + this.rightLength == this.entries.length) {
+            this.grow();
+        }
+        //Put the new entry at the back end of the gap
+        this.rightLength++;
+        this.entries[this.entries.length - this.rightLength] = x;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        //Take the first entry in the right list, widening the gap
+        int front = this.entries.length - this.rightLength;
+        T element = this.entries[front];
+        this.entries[front] = null;
+        this.rightLength--;
+        assert this.conventionHolds();
+        return element;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        //Move the first entry in the right list across the gap, if there is one
+        int front = this.entries.length - this.rightLength;
+        if (front != this.leftLength) {
+            this.entries[this.leftLength] = this.entries[front];
+            this.entries[front] = null;
+        }
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+        //Move the whole left list across the gap, to the front of the right
+        int rightStart = this.entries.length - this.rightLength;
+        int newRightStart = rightStart - this.leftLength;
+        System.arraycopy(this.entries, 0, this.entries, newRightStart,
+                this.leftLength);
+        Arrays.fill(this.entries, 0,
+                Math.min(this.leftLength, newRightStart), null);
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Position in the array of the next entry to return, or
+         * {@code |entries|} if there is none.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        private List4Iterator() {
+            this.current = 0;
+            this.skipGap();
+            assert List4.this.conventionHolds();
+        }
+
+        /**
+         * Moves {@code this.current} past the gap if it is in it.
+         */
+        private void skipGap() {
+            if (this.current == List4.this.leftLength) {
+                this.current = List4.this.entries.length
+                        - List4.this.rightLength;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current < List4.this.entries.length;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = List4.this.entries[this.current];
+            this.current++;
+            this.skipGap();
+            assert List4.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final T rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        return this.entries[this.entries.length - this.rightLength];
+    }
+
+    @Override
+    public final T replaceRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        int front = this.entries.length - this.rightLength;
+        T element = this.entries[front];
+        this.entries[front] = x;
+        assert this.conventionHolds();
+        return element;
+    }
+
+    @Override
+    public final void moveToFinish() {
+        //Move the whole right list across the gap, to the back of the left
+        int rightStart = this.entries.length - this.rightLength;
+        System.arraycopy(this.entries, rightStart, this.entries,
+                this.leftLength, this.rightLength);
+        Arrays.fill(this.entries,
+                Math.max(rightStart, this.leftLength + this.rightLength),
+                this.entries.length, null);
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        //Move the last entry in the left list across the gap, if there is one
+        int back = this.leftLength - 1;
+        int front = this.entries.length - this.rightLength - 1;
+        if (front != back) {
+            this.entries[front] = this.entries[back];
+            this.entries[back] = null;
+        }
+        this.leftLength--;
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+}
@@ -0,0 +1,578 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an unrolled doubly linked list, done
+ * "bare-handed": each node holds up to {@code NODE_CAPACITY} consecutive
+ * entries in an array, and the position is a node and an offset within it.
+ *
+ * <p>
+ * Execution-time performance of all methods implemented in this class is O(1)
+ * (methods that insert or remove an entry shift at most
+ * {@code NODE_CAPACITY} entries within one node). Iterating reads entries from
+ * arrays, following one link per {@code NODE_CAPACITY} entries instead of one
+ * per entry.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * [$this.preStart is not null]  and
+ * [$this.postFinish is not null]  and
+ * [$this.preStart points to the first node of a doubly linked list whose
+ *  last node is pointed to by $this.postFinish]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.preStart, n.previous.next = n]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.postFinish, n.next.previous = n]  and
+ * [$this.preStart.count = 0  and  $this.postFinish.count = 0]  and
+ * [for every other node n in the doubly linked list of nodes,
+ *  1 <= n.count <= NODE_CAPACITY]  and
+ * [for every node n in the doubly linked list of nodes, the entries at
+ *  positions 0 through n.count - 1 in n.items are not null and the rest are
+ *  null]  and
+ * [the sum of n.count over all nodes n in the doubly linked list of nodes
+ *  = $this.leftLength + $this.rightLength]  and
+ * [$this.cursor points to a node in the doubly linked list of nodes other
+ *  than the one pointed to by $this.postFinish]  and
+ * 0 <= $this.offset <= $this.cursor.count  and
+ * [the sum of n.count over the nodes n before the one pointed to by
+ *  $this.cursor] + $this.offset = $this.leftLength
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries in nodes starting at $this.preStart.next and running through
+ *    the entry at position $this.offset - 1 in $this.cursor.items],
+ *   [entries starting at position $this.offset in $this.cursor.items and
+ *    running through the nodes ending at $this.postFinish.previous])
+ * </pre>
+ */
+public class List5<T> extends ListSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Maximum number of entries held by one node.
+     */
+    private static final int NODE_CAPACITY = 32;
+
+    /**
+     * Number of entries below which a node is merged with the next node, if
+     * they fit in one.
+     */
+    private static final int MERGE_THRESHOLD = NODE_CAPACITY / 4;
+
+    /**
+     * Node class for unrolled doubly linked list nodes.
+     */
+    private final class Node {
+
+        /**
+         * Entries in node, at positions 0 through count - 1.
+         */
+        private T[] items;
+
+        /**
+         * Number of entries in node; 0 if this is a "smart" Node.
+         */
+        private int count;
+
+        /**
+         * Next node in doubly linked list, or, if this is a trailing "smart"
+         * Node, irrelevant.
+         */
+        private Node next;
+
+        /**
+         * Previous node in doubly linked list, or, if this is a leading "smart"
+         * Node, irrelevant.
+         */
+        private Node previous;
+
+        /**
+         * Constructor.
+         *
+         * @param capacity
+         *            length of the array of entries
+         */
+        @SuppressWarnings("unchecked")
+        private Node(int capacity) {
+            /*
+             * With "new T[...]" in place of "new Object[...]" it does not
+             * compile; as shown, it results in a warning about an unchecked
+             * cast, though it cannot fail.
+             */
+            this.items = (T[]) (new Object[capacity]);
+            this.count = 0;
+        }
+
+    }
+
+    /**
+     * "Smart node" before start node of doubly linked list.
+     */
+    private Node preStart;
+
+    /**
+     * "Smart node" after finish node of doubly linked list.
+     */
+    private Node postFinish;
+
+    /**
+     * Node holding the position.
+     */
+    private Node cursor;
+
+    /**
+     * Offset of the position in this.cursor: entries before it are in
+     * this.left.
+     */
+    private int offset;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.preStart is not null]  and
+     * [$this.postFinish is not null]  and
+     * [$this.preStart points to the first node of a doubly linked list whose
+     *  last node is pointed to by $this.postFinish]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.preStart, n.previous.next = n]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.postFinish, n.next.previous = n]  and
+     * [$this.preStart.count = 0  and  $this.postFinish.count = 0]  and
+     * [for every other node n in the doubly linked list of nodes,
+     *  1 <= n.count <= NODE_CAPACITY]  and
+     * [for every node n in the doubly linked list of nodes, the entries at
+     *  positions 0 through n.count - 1 in n.items are not null and the rest
+     *  are null]  and
+     * [the sum of n.count over all nodes n in the doubly linked list of nodes
+     *  = $this.leftLength + $this.rightLength]  and
+     * [$this.cursor points to a node in the doubly linked list of nodes other
+     *  than the one pointed to by $this.postFinish]  and
+     * 0 <= $this.offset <= $this.cursor.count  and
+     * [the sum of n.count over the nodes n before the one pointed to by
+     *  $this.cursor] + $this.offset = $this.leftLength
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.preStart != null : "Violation of: $this.preStart is not null";
+        assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert (this.preStart.count == 0) && (this.postFinish.count == 0) : ""
+                + "Violation of: [$this.preStart.count = 0  and"
+                + "  $this.postFinish.count = 0]";
+
+        int total = 0;
+        int beforeCursor = -1;
+        Node n = this.preStart;
+        while ((total <= this.leftLength + this.rightLength)
+                && (n != this.postFinish)) {
+            if (n == this.cursor) {
+                beforeCursor = total;
+            }
+            if (n != this.preStart) {
+                assert (1 <= n.count) && (n.count <= NODE_CAPACITY) : ""
+                        + "Violation of: [for every other node n in the doubly"
+                        + " linked list of nodes, 1 <= n.count <= NODE_CAPACITY]";
+            }
+            for (int i = 0; i < n.items.length; i++) {
+                assert (n.items[i] != null) == (i < n.count) : ""
+                        + "Violation of: [for every node n in the doubly linked"
+                        + " list of nodes, the entries at positions 0 through"
+                        + " n.count - 1 in n.items are not null and the rest"
+                        + " are null]";
+            }
+            total += n.count;
+            assert (n.next != null) && (n.next.previous == n) : ""
+                    + "Violation of: [for every node n in the doubly linked"
+                    + " list of nodes, except the one pointed to by"
+                    + " $this.postFinish, n.next.previous = n]";
+            n = n.next;
+            assert n.previous.next == n : ""
+                    + "Violation of: [for every node n in the doubly linked"
+                    + " list of nodes, except the one pointed to by"
+                    + " $this.preStart, n.previous.next = n]";
+        }
+        assert n == this.postFinish : ""
+                + "Violation of: [$this.preStart points to the first node of"
+                + " a doubly linked list whose last node is pointed to by"
+                + " $this.postFinish]";
+        assert total == this.leftLength + this.rightLength : ""
+                + "Violation of: [the sum of n.count over all nodes n in the"
+                + " doubly linked list of nodes = $this.leftLength +"
+                + " $this.rightLength]";
+        assert beforeCursor >= 0 : ""
+                + "Violation of: [$this.cursor points to a node in the doubly"
+                + " linked list of nodes other than the one pointed to by"
+                + " $this.postFinish]";
+        assert (0 <= this.offset) && (this.offset <= this.cursor.count) : ""
+                + "Violation of: 0 <= $this.offset <= $this.cursor.count";
+        assert beforeCursor + this.offset == this.leftLength : ""
+                + "Violation of: [the sum of n.count over the nodes n before"
+                + " the one pointed to by $this.cursor] + $this.offset"
+                + " = $this.leftLength";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        //Create doubly linked list with two smart nodes
+        this.preStart = new Node(0);
+        this.postFinish = new Node(0);
+        this.preStart.next = this.postFinish;
+        this.postFinish.previous = this.preStart;
+        this.cursor = this.preStart;
+        this.offset = 0;
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Creates a new, empty node and links it into the doubly linked list of
+     * nodes after {@code p}.
+     *
+     * @param p
+     *            the node to link the new node after
+     * @return the new node
+     * @requires [p is in the doubly linked list of nodes and is not
+     *           this.postFinish]
+     * @ensures <pre>
+     * linkAfter.count = 0  and  p.next = linkAfter  and
+     * linkAfter.next = #p.next
+     * </pre>
+     */
+    private Node linkAfter(Node p) {
+        Node n = new Node(NODE_CAPACITY);
+        n.previous = p;
+        n.next = p.next;
+        p.next.previous = n;
+        p.next = n;
+        return n;
+    }
+
+    /**
+     * Removes {@code n} from the doubly linked list of nodes.
+     *
+     * @param n
+     *            the node to unlink
+     * @requires [n is in the doubly linked list of nodes and is neither
+     *           this.preStart nor this.postFinish]
+     * @ensures [n is no longer in the doubly linked list of nodes]
+     */
+    private void unlink(Node n) {
+        n.previous.next = n.next;
+        n.next.previous = n.previous;
+    }
+
+    /**
+     * Moves the position representation, if it is at the end of
+     * {@code this.cursor}, to the start of the next node, so that the first
+     * entry of {@code this.right} is at {@code this.offset} in
+     * {@code this.cursor}.
+     *
+     * @updates this.cursor, this.offset
+     * @requires this.right /= <>
+     * @ensures this.offset < this.cursor.count
+     */
+    private void moveCursorToRightFront() {
+        if (this.offset == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.offset = 0;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public List5() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List5<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List5<?> : ""
+                + "Violation of: source is of dynamic type List5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List5<T> localSource = (List5<T>) source;
+        this.preStart = localSource.preStart;
+        this.postFinish = localSource.postFinish;
+        this.cursor = localSource.cursor;
+        this.offset = localSource.offset;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        //Find a node to insert into: the smart node holds no entries
+        if (this.cursor == this.preStart) {
+            this.cursor = this.preStart.next;
+            if (this.cursor == this.postFinish) {
+                this.cursor = this.linkAfter(this.preStart);
+            }
+        }
+        //Split a full node, moving its upper half to a new node after it
+        if (this.cursor.count == NODE_CAPACITY) {
+            Node n = this.linkAfter(this.cursor);
+            int half = NODE_CAPACITY / 2;
+            System.arraycopy(this.cursor.items, half, n.items, 0,
+                    NODE_CAPACITY - half);
+            for (int i = half; i < NODE_CAPACITY; i++) {
+                this.cursor.items[i] = null;
+            }
+            n.count = NODE_CAPACITY - half;
+            this.cursor.count = half;
+            if (this.offset > half) {
+                this.cursor = n;
+                this.offset -= half;
+            }
+        }
+        //Shift the entries after the position up one and add the new entry
+        Node p = this.cursor;
+        System.arraycopy(p.items, this.offset, p.items, this.offset + 1,
+                p.count - this.offset);
+        p.items[this.offset] = x;
+        p.count++;
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        //Take the entry at the position and shift the rest down one
+        Node p = this.cursor;
+        T element = p.items[this.offset];
+        System.arraycopy(p.items, this.offset + 1, p.items, this.offset,
+                p.count - this.offset - 1);
+        p.count--;
+        p.items[p.count] = null;
+        this.rightLength--;
+        if (p.count == 0) {
+            //Drop the empty node, leaving the position at the end of the one
+            //before it
+            this.cursor = p.previous;
+            this.offset = this.cursor.count;
+            this.unlink(p);
+        } else if ((p.count < MERGE_THRESHOLD) && (p.next != this.postFinish)
+                && (p.count + p.next.count <= NODE_CAPACITY)) {
+            //Merge a nearly empty node with the next one
+            Node q = p.next;
+            System.arraycopy(q.items, 0, p.items, p.count, q.count);
+            p.count += q.count;
+            this.unlink(q);
+        }
+        assert this.conventionHolds();
+        return element;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        this.offset++;
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+        this.cursor = this.preStart;
+        this.offset = 0;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List5}.
+     */
+    private final class List5Iterator implements Iterator<T> {
+
+        /**
+         * Node holding the next entry to return, or postFinish if there is
+         * none.
+         */
+        private Node current;
+
+        /**
+         * Position of the next entry to return in current.items.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List5Iterator() {
+            this.current = List5.this.preStart.next;
+            this.index = 0;
+            assert List5.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != List5.this.postFinish;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.current.items[this.index];
+            this.index++;
+            if (this.index == this.current.count) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            assert List5.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final T rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        return this.cursor.items[this.offset];
+    }
+
+    @Override
+    public final T replaceRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        T element = this.cursor.items[this.offset];
+        this.cursor.items[this.offset] = x;
+        assert this.conventionHolds();
+        return element;
+    }
+
+    @Override
+    public final void moveToFinish() {
+        this.cursor = this.postFinish.previous;
+        this.offset = this.cursor.count;
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        //Step back into the previous node if the position is at the start of
+        //this one
+        if (this.offset == 0) {
+            this.cursor = this.cursor.previous;
+            this.offset = this.cursor.count;
+        }
+        this.offset--;
+        this.rightLength++;
+        this.leftLength--;
+        assert this.conventionHolds();
+    }
+
+}
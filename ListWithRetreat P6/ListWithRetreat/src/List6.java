@@ -0,0 +1,874 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List<Character>} represented as a rope, done "bare-handed": a
+ * height-balanced (AVL) binary tree whose leaves hold consecutive characters
+ * in {@code char} arrays of up to {@code CHUNK_CAPACITY} characters, with the
+ * leaves also linked in order, and the position held as a leaf and an offset
+ * within it.
+ *
+ * <p>
+ * Execution-time performance of {@code advance}, {@code retreat},
+ * {@code rightFront}, {@code replaceRightFront}, {@code leftLength}, and
+ * {@code rightLength} is O(1); of {@code addRightFront},
+ * {@code removeRightFront}, {@code moveToStart}, {@code moveToFinish}, and
+ * {@code moveToPosition} is O(log |this|); and of {@code substring} is
+ * O(log |this| + length of the result). Each character costs about two bytes
+ * instead of a boxed {@code Character} in its own node.
+ * </p>
+ *
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * [$this.root is not null]  and
+ * [$this.root.parent is null]  and
+ * [every node n in the tree rooted at $this.root is either a leaf, with
+ *  n.chars not null and n.left and n.right null, or an internal node,
+ *  with n.chars null and n.left and n.right not null]  and
+ * [for every node n in the tree other than $this.root, n.parent is the node
+ *  of which n is a child]  and
+ * [for every leaf n in the tree, n.size = n.count and n.height = 1]  and
+ * [for every internal node n in the tree, n.size = n.left.size +
+ *  n.right.size and n.height = 1 + max(n.left.height, n.right.height) and
+ *  |n.left.height - n.right.height| <= 1]  and
+ * [for every leaf n in the tree, 1 <= n.count <= |n.chars| =
+ *  CHUNK_CAPACITY, except that if $this.root is a leaf then
+ *  0 <= $this.root.count]  and
+ * [the leaves of the tree, in order from left to right, are linked so
+ *  that, for each one n, n.previous is the leaf before it (or null) and
+ *  n.next is the leaf after it (or null)]  and
+ * [$this.cursor is a leaf of the tree]  and
+ * 0 <= $this.offset <= $this.cursor.count  and
+ * [the sum of n.count over the leaves n before $this.cursor] +
+ *  $this.offset = $this.leftLength  and
+ * $this.leftLength + $this.rightLength = $this.root.size
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([characters in the leaves of the tree, from left to right, before
+ *    position $this.offset in $this.cursor.chars],
+ *   [characters in the leaves of the tree, from left to right, starting at
+ *    position $this.offset in $this.cursor.chars])
+ * </pre>
+ */
+public class List6 extends ListSecondary<Character> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Maximum number of characters held by one leaf.
+     */
+    private static final int CHUNK_CAPACITY = 256;
+
+    /**
+     * Number of characters below which a leaf is merged with the next leaf, if
+     * they fit in one.
+     */
+    private static final int MERGE_THRESHOLD = CHUNK_CAPACITY / 4;
+
+    /**
+     * Node class for rope nodes: leaves hold characters, internal nodes hold
+     * the size and height of their subtrees.
+     */
+    private static final class Node {
+
+        /**
+         * Characters in leaf, at positions 0 through count - 1, or, if this is
+         * an internal node, null.
+         */
+        private char[] chars;
+
+        /**
+         * Number of characters in leaf, or, if this is an internal node, 0.
+         */
+        private int count;
+
+        /**
+         * Number of characters in the subtree rooted at this node.
+         */
+        private int size;
+
+        /**
+         * Height of the subtree rooted at this node; 1 for a leaf.
+         */
+        private int height;
+
+        /**
+         * Parent node, or null if this is the root.
+         */
+        private Node parent;
+
+        /**
+         * Left child, or, if this is a leaf, null.
+         */
+        private Node left;
+
+        /**
+         * Right child, or, if this is a leaf, null.
+         */
+        private Node right;
+
+        /**
+         * Next leaf, or, if this is an internal node or the last leaf, null.
+         */
+        private Node next;
+
+        /**
+         * Previous leaf, or, if this is an internal node or the first leaf,
+         * null.
+         */
+        private Node previous;
+
+    }
+
+    /**
+     * Root of the tree.
+     */
+    private Node root;
+
+    /**
+     * Leaf holding the position.
+     */
+    private Node cursor;
+
+    /**
+     * Offset of the position in this.cursor: characters before it are in
+     * this.left.
+     */
+    private int offset;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the subtree rooted at {@code n} satisfies the parts of the
+     * convention about nodes, and records its leaves, in order, in
+     * {@code leaves} after the {@code count} already found.
+     *
+     * @param n
+     *            the root of the subtree to check
+     * @param leaves
+     *            the leaves of the tree found so far, in order
+     * @param count
+     *            number of leaves found so far
+     * @return the number of leaves found so far, including those of the
+     *         subtree
+     * @updates leaves
+     */
+    private static int checkSubtree(Node n, Node[] leaves, int count) {
+        int found = count;
+        if (n.chars != null) {
+            assert (n.left == null) && (n.right == null) : ""
+                    + "Violation of: [every node n in the tree rooted at"
+                    + " $this.root is either a leaf or an internal node]";
+            assert (n.size == n.count) && (n.height == 1) : ""
+                    + "Violation of: [for every leaf n in the tree,"
+                    + " n.size = n.count and n.height = 1]";
+            assert n.chars.length == CHUNK_CAPACITY : ""
+                    + "Violation of: [for every leaf n in the tree,"
+                    + " |n.chars| = CHUNK_CAPACITY]";
+            assert (n.count <= CHUNK_CAPACITY)
+                    && ((n.count >= 1) || (n.parent == null)) : ""
+                            + "Violation of: [for every leaf n in the tree,"
+                            + " 1 <= n.count <= |n.chars|, except at the root]";
+            if (found < leaves.length) {
+                leaves[found] = n;
+            }
+            found++;
+        } else {
+            assert (n.left != null) && (n.right != null) && (n.count == 0) : ""
+                    + "Violation of: [every node n in the tree rooted at"
+                    + " $this.root is either a leaf or an internal node]";
+            assert (n.left.parent == n) && (n.right.parent == n) : ""
+                    + "Violation of: [for every node n in the tree other than"
+                    + " $this.root, n.parent is the node of which n is a child]";
+            found = checkSubtree(n.left, leaves, found);
+            found = checkSubtree(n.right, leaves, found);
+            assert n.size == n.left.size + n.right.size : ""
+                    + "Violation of: [for every internal node n in the tree,"
+                    + " n.size = n.left.size + n.right.size]";
+            assert n.height == 1 + Math.max(n.left.height, n.right.height) : ""
+                    + "Violation of: [for every internal node n in the tree,"
+                    + " n.height = 1 + max(n.left.height, n.right.height)]";
+            assert Math.abs(n.left.height - n.right.height) <= 1 : ""
+                    + "Violation of: [for every internal node n in the tree,"
+                    + " |n.left.height - n.right.height| <= 1]";
+        }
+        return found;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.root is not null]  and
+     * [$this.root.parent is null]  and
+     * [every node n in the tree rooted at $this.root is either a leaf, with
+     *  n.chars not null and n.left and n.right null, or an internal node,
+     *  with n.chars null and n.left and n.right not null]  and
+     * [for every node n in the tree other than $this.root, n.parent is the
+     *  node of which n is a child]  and
+     * [for every leaf n in the tree, n.size = n.count and n.height = 1]  and
+     * [for every internal node n in the tree, n.size = n.left.size +
+     *  n.right.size and n.height = 1 + max(n.left.height, n.right.height)
+     *  and |n.left.height - n.right.height| <= 1]  and
+     * [for every leaf n in the tree, 1 <= n.count <= |n.chars| =
+     *  CHUNK_CAPACITY, except that if $this.root is a leaf then
+     *  0 <= $this.root.count]  and
+     * [the leaves of the tree, in order from left to right, are linked so
+     *  that, for each one n, n.previous is the leaf before it (or null) and
+     *  n.next is the leaf after it (or null)]  and
+     * [$this.cursor is a leaf of the tree]  and
+     * 0 <= $this.offset <= $this.cursor.count  and
+     * [the sum of n.count over the leaves n before $this.cursor] +
+     *  $this.offset = $this.leftLength  and
+     * $this.leftLength + $this.rightLength = $this.root.size
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.root != null : "Violation of: [$this.root is not null]";
+        assert this.root.parent == null : ""
+                + "Violation of: [$this.root.parent is null]";
+        assert this.leftLength + this.rightLength == this.root.size : ""
+                + "Violation of: $this.leftLength + $this.rightLength"
+                + " = $this.root.size";
+
+        //At most one leaf per character, plus the empty root leaf
+        Node[] leaves = new Node[this.root.size + 1];
+        int leafCount = checkSubtree(this.root, leaves, 0);
+        assert leafCount <= leaves.length : ""
+                + "Violation of: [for every leaf n in the tree, 1 <= n.count]";
+        int before = -1;
+        int total = 0;
+        for (int i = 0; i < leafCount; i++) {
+            Node n = leaves[i];
+            assert n.previous == ((i > 0) ? leaves[i - 1] : null) : ""
+                    + "Violation of: [n.previous is the leaf before it"
+                    + " (or null)]";
+            assert n.next == ((i < leafCount - 1) ? leaves[i + 1] : null) : ""
+                    + "Violation of: [n.next is the leaf after it (or null)]";
+            if (n == this.cursor) {
+                before = total;
+            }
+            total += n.count;
+        }
+        assert before >= 0 : "Violation of: [$this.cursor is a leaf of the tree]";
+        assert (0 <= this.offset) && (this.offset <= this.cursor.count) : ""
+                + "Violation of: 0 <= $this.offset <= $this.cursor.count";
+        assert before + this.offset == this.leftLength : ""
+                + "Violation of: [the sum of n.count over the leaves n before"
+                + " $this.cursor] + $this.offset = $this.leftLength";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.root = newLeaf();
+        this.cursor = this.root;
+        this.offset = 0;
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Creates and returns a new, empty leaf.
+     *
+     * @return the new leaf
+     * @ensures <pre>
+     * newLeaf.count = 0  and  |newLeaf.chars| = CHUNK_CAPACITY  and
+     * newLeaf.height = 1  and  [all links of newLeaf are null]
+     * </pre>
+     */
+    private static Node newLeaf() {
+        Node n = new Node();
+        n.chars = new char[CHUNK_CAPACITY];
+        n.height = 1;
+        return n;
+    }
+
+    /**
+     * Recomputes {@code n.size} and {@code n.height} from its children.
+     *
+     * @param n
+     *            the internal node to update
+     * @updates n.size, n.height
+     * @requires [n is an internal node]
+     * @ensures <pre>
+     * n.size = n.left.size + n.right.size  and
+     * n.height = 1 + max(n.left.height, n.right.height)
+     * </pre>
+     */
+    private static void update(Node n) {
+        n.size = n.left.size + n.right.size;
+        n.height = 1 + Math.max(n.left.height, n.right.height);
+    }
+
+    /**
+     * Replaces {@code n} with {@code m} as a child of {@code n}'s parent (or as
+     * the root).
+     *
+     * @param n
+     *            the node to replace
+     * @param m
+     *            the node to put in its place
+     * @updates this.root, n.parent, m.parent
+     * @ensures [m has n's former parent, in n's former place]
+     */
+    private void replaceChild(Node n, Node m) {
+        Node p = n.parent;
+        m.parent = p;
+        if (p == null) {
+            this.root = m;
+        } else if (p.left == n) {
+            p.left = m;
+        } else {
+            p.right = m;
+        }
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code n} so that its taller child becomes
+     * its root, and returns the new root of the subtree.
+     *
+     * @param n
+     *            the root of the subtree to rotate
+     * @param toLeft
+     *            whether to rotate left (making n.right the root) rather than
+     *            right (making n.left the root)
+     * @return the new root of the subtree
+     * @updates this.root, [nodes of the subtree rooted at n]
+     * @requires [the child of n that becomes the root is an internal node]
+     * @ensures [the subtree holds the same leaves, in the same order]
+     */
+    private Node rotate(Node n, boolean toLeft) {
+        Node c;
+        if (toLeft) {
+            c = n.right;
+            n.right = c.left;
+            n.right.parent = n;
+            this.replaceChild(n, c);
+            c.left = n;
+        } else {
+            c = n.left;
+            n.left = c.right;
+            n.left.parent = n;
+            this.replaceChild(n, c);
+            c.right = n;
+        }
+        n.parent = c;
+        update(n);
+        update(c);
+        return c;
+    }
+
+    /**
+     * Recomputes sizes and heights from {@code n} up to the root, rotating
+     * where a node's children's heights differ by more than one.
+     *
+     * @param n
+     *            the lowest internal node whose subtree changed shape, or null
+     * @updates this.root, [nodes on the path from n to the root]
+     * @ensures [the tree holds the same leaves, in the same order, and
+     *          satisfies the convention for sizes, heights, and balance]
+     */
+    private void rebalance(Node n) {
+        Node p = n;
+        while (p != null) {
+            update(p);
+            int balance = p.left.height - p.right.height;
+            if (balance > 1) {
+                if (p.left.left.height < p.left.right.height) {
+                    this.rotate(p.left, true);
+                }
+                p = this.rotate(p, false);
+            } else if (balance < -1) {
+                if (p.right.right.height < p.right.left.height) {
+                    this.rotate(p.right, false);
+                }
+                p = this.rotate(p, true);
+            }
+            p = p.parent;
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the sizes of {@code n} and all its ancestors.
+     *
+     * @param n
+     *            the lowest node whose size changes
+     * @param delta
+     *            the change in size
+     * @updates [sizes of nodes on the path from n to the root]
+     */
+    private static void addToSizes(Node n, int delta) {
+        Node p = n;
+        while (p != null) {
+            p.size += delta;
+            p = p.parent;
+        }
+    }
+
+    /**
+     * Splits the full leaf {@code n}, moving its upper half into a new leaf
+     * just after it.
+     *
+     * @param n
+     *            the leaf to split
+     * @return the new leaf
+     * @updates this.root, [the tree]
+     * @requires n.count = CHUNK_CAPACITY
+     * @ensures [the tree holds the same characters, in the same order, and
+     *          satisfies the convention]
+     */
+    private Node splitLeaf(Node n) {
+        int half = CHUNK_CAPACITY / 2;
+        Node m = newLeaf();
+        System.arraycopy(n.chars, half, m.chars, 0, CHUNK_CAPACITY - half);
+        m.count = CHUNK_CAPACITY - half;
+        m.size = m.count;
+        n.count = half;
+        n.size = half;
+        //Link the new leaf after n
+        m.next = n.next;
+        m.previous = n;
+        if (n.next != null) {
+            n.next.previous = m;
+        }
+        n.next = m;
+        //Put a new internal node with children n and m in n's place
+        Node p = new Node();
+        this.replaceChild(n, p);
+        p.left = n;
+        p.right = m;
+        n.parent = p;
+        m.parent = p;
+        this.rebalance(p);
+        return m;
+    }
+
+    /**
+     * Removes the empty leaf {@code n} from the tree.
+     *
+     * @param n
+     *            the leaf to remove
+     * @updates this.root, [the tree]
+     * @requires n.count = 0  and  n is not this.root
+     * @ensures [the tree holds the same characters, in the same order, and
+     *          satisfies the convention]
+     */
+    private void removeLeaf(Node n) {
+        //Unlink the leaf from the leaves
+        if (n.previous != null) {
+            n.previous.next = n.next;
+        }
+        if (n.next != null) {
+            n.next.previous = n.previous;
+        }
+        //Put n's sibling in place of n's parent
+        Node p = n.parent;
+        Node sibling;
+        if (p.left == n) {
+            sibling = p.right;
+        } else {
+            sibling = p.left;
+        }
+        this.replaceChild(p, sibling);
+        this.rebalance(sibling.parent);
+    }
+
+    /**
+     * Moves the position representation, if it is at the end of
+     * {@code this.cursor}, to the start of the next leaf, so that the first
+     * character of {@code this.right} is at {@code this.offset} in
+     * {@code this.cursor}.
+     *
+     * @updates this.cursor, this.offset
+     * @requires this.right /= <>
+     * @ensures this.offset < this.cursor.count
+     */
+    private void moveCursorToRightFront() {
+        if (this.offset == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.offset = 0;
+        }
+    }
+
+    /**
+     * Finds the leaf holding position {@code k} and sets {@code this.cursor}
+     * and {@code this.offset} to it.
+     *
+     * @param k
+     *            the number of characters before the position
+     * @updates this.cursor, this.offset
+     * @requires 0 <= k <= this.root.size
+     * @ensures [this.cursor and this.offset are a leaf and an offset with k
+     *          characters before them]
+     */
+    private void seek(int k) {
+        Node n = this.root;
+        int before = k;
+        while (n.chars == null) {
+            if (before <= n.left.size) {
+                n = n.left;
+            } else {
+                before -= n.left.size;
+                n = n.right;
+            }
+        }
+        this.cursor = n;
+        this.offset = before;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public List6() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final List6 newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<Character> source) {
+        assert source instanceof List6 : ""
+                + "Violation of: source is of dynamic type List6";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        List6 localSource = (List6) source;
+        this.root = localSource.root;
+        this.cursor = localSource.cursor;
+        this.offset = localSource.offset;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void addRightFront(Character x) {
+        assert x != null : "Violation of: x is not null";
+        //Split a full leaf, keeping the position in whichever half holds it
+        if (this.cursor.count == CHUNK_CAPACITY) {
+            Node m = this.splitLeaf(this.cursor);
+            if (this.offset > this.cursor.count) {
+                this.offset -= this.cursor.count;
+                this.cursor = m;
+            }
+        }
+        //Shift the characters after the position up one and add the new one
+        Node n = this.cursor;
+        System.arraycopy(n.chars, this.offset, n.chars, this.offset + 1,
+                n.count - this.offset);
+        n.chars[this.offset] = x;
+        n.count++;
+        addToSizes(n, 1);
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final Character removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        //Take the character at the position and shift the rest down one
+        Node n = this.cursor;
+        char c = n.chars[this.offset];
+        System.arraycopy(n.chars, this.offset + 1, n.chars, this.offset,
+                n.count - this.offset - 1);
+        n.count--;
+        addToSizes(n, -1);
+        this.rightLength--;
+        if ((n.count == 0) && (n != this.root)) {
+            //Drop the empty leaf, leaving the position at the end of the leaf
+            //before it or the start of the one after it
+            if (n.previous != null) {
+                this.cursor = n.previous;
+                this.offset = this.cursor.count;
+            } else {
+                this.cursor = n.next;
+                this.offset = 0;
+            }
+            this.removeLeaf(n);
+        } else if ((n.count < MERGE_THRESHOLD) && (n.next != null)
+                && (n.count + n.next.count <= CHUNK_CAPACITY)) {
+            //Merge a nearly empty leaf with the next one
+            Node m = n.next;
+            System.arraycopy(m.chars, 0, n.chars, n.count, m.count);
+            n.count += m.count;
+            addToSizes(n, m.count);
+            addToSizes(m, -m.count);
+            m.count = 0;
+            this.removeLeaf(m);
+        }
+        assert this.conventionHolds();
+        return c;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        this.offset++;
+        this.leftLength++;
+        this.rightLength--;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+        this.seek(0);
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<Character> iterator() {
+        assert this.conventionHolds();
+        return new List6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List6}.
+     */
+    private final class List6Iterator implements Iterator<Character> {
+
+        /**
+         * Leaf holding the next character to return, or null if there is none.
+         */
+        private Node current;
+
+        /**
+         * Position of the next character to return in current.chars.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List6Iterator() {
+            Node n = List6.this.root;
+            while (n.chars == null) {
+                n = n.left;
+            }
+            //The only leaf that can be empty is a root with no characters
+            if (n.count == 0) {
+                n = null;
+            }
+            this.current = n;
+            this.index = 0;
+            assert List6.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != null;
+        }
+
+        @Override
+        public Character next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            char c = this.current.chars[this.index];
+            this.index++;
+            if (this.index == this.current.count) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            assert List6.this.conventionHolds();
+            return c;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final Character rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        return this.cursor.chars[this.offset];
+    }
+
+    @Override
+    public final Character replaceRightFront(Character x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+        this.moveCursorToRightFront();
+        char c = this.cursor.chars[this.offset];
+        this.cursor.chars[this.offset] = x;
+        assert this.conventionHolds();
+        return c;
+    }
+
+    @Override
+    public final void moveToFinish() {
+        this.seek(this.root.size);
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+        //Step back into the previous leaf if the position is at the start of
+        //this one
+        if (this.offset == 0) {
+            this.cursor = this.cursor.previous;
+            this.offset = this.cursor.count;
+        }
+        this.offset--;
+        this.rightLength++;
+        this.leftLength--;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Moves the position in {@code this} so that {@code this.left} has
+     * length {@code k}.
+     *
+     * @param k
+     *            the length of {@code this.left} after the move
+     * @updates this
+     * @requires 0 <= k <= |this.left| + |this.right|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = k
+     * </pre>
+     */
+    public final void moveToPosition(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.leftLength() + this.rightLength() : ""
+                + "Violation of: k <= |this.left| + |this.right|";
+        this.seek(k);
+        this.rightLength += this.leftLength - k;
+        this.leftLength = k;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports the characters of {@code this} from position {@code start} up
+     * to, but not including, position {@code end}, copying them a leaf at a
+     * time.
+     *
+     * @param start
+     *            the position of the first character reported
+     * @param end
+     *            the position after the last character reported
+     * @return the characters as a {@code String}
+     * @requires 0 <= start <= end <= |this.left| + |this.right|
+     * @ensures <pre>
+     * substring = [the characters of this.left * this.right from position
+     *  start up to, but not including, position end]
+     * </pre>
+     */
+    public final String substring(int start, int end) {
+        assert 0 <= start : "Violation of: 0 <= start";
+        assert start <= end : "Violation of: start <= end";
+        assert end <= this.leftLength() + this.rightLength() : ""
+                + "Violation of: end <= |this.left| + |this.right|";
+        //Find the leaf holding start without moving the position
+        Node n = this.root;
+        int i = start;
+        while (n.chars == null) {
+            if (i < n.left.size) {
+                n = n.left;
+            } else {
+                i -= n.left.size;
+                n = n.right;
+            }
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        int remaining = end - start;
+        while (remaining > 0) {
+            int chunk = Math.min(n.count - i, remaining);
+            sb.append(n.chars, i, chunk);
+            remaining -= chunk;
+            n = n.next;
+            i = 0;
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,499 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable cursor list with the same model as {@code List3}, represented as a
+ * zipper: {@code this.left} as a singly linked chain starting from its last
+ * entry, and {@code this.right} as a singly linked chain starting from its
+ * first entry. Each method that changes the list returns a new version that
+ * shares all but at most one node with {@code this}, which is left unchanged,
+ * so old versions can be kept (for example, for undo and redo) at almost no
+ * cost.
+ *
+ * <p>
+ * Execution-time performance of {@code moveToStart} is O(|this.left|), of
+ * {@code moveToFinish} is O(|this.right|), and of {@code equals},
+ * {@code hashCode}, and {@code toString} is O(|this|). Execution-time
+ * performance of all other methods implemented in this class is O(1).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code ZipperList} entries
+ * @mathmodel <pre>
+ * type ZipperList is modeled by (
+ *   left: string of T,
+ *   right: string of T
+ * )
+ * </pre>
+ * @initially <pre>
+ * this = (<>, <>)
+ * </pre>
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * [$this.leftReversed is a chain of $this.leftLength nodes linked by tail,
+ *  ending with null, whose heads are not null]  and
+ * [$this.right is a chain of $this.rightLength nodes linked by tail,
+ *  ending with null, whose heads are not null]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  (rev([heads of the nodes of $this.leftReversed, in order]),
+ *   [heads of the nodes of $this.right, in order])
+ * </pre>
+ */
+public final class ZipperList<T> implements Iterable<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node class for the immutable singly linked chains.
+     *
+     * @param <T>
+     *            type of entry in the node
+     */
+    private static final class Node<T> {
+
+        /**
+         * Entry in node.
+         */
+        private final T head;
+
+        /**
+         * Next node in chain, or null.
+         */
+        private final Node<T> tail;
+
+        /**
+         * Constructor.
+         *
+         * @param head
+         *            entry in node
+         * @param tail
+         *            next node in chain
+         */
+        private Node(T head, Node<T> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+    }
+
+    /**
+     * Empty list, shared by all element types.
+     */
+    private static final ZipperList<?> EMPTY = new ZipperList<Object>(null, 0,
+            null, 0);
+
+    /**
+     * this.left, starting from its last entry.
+     */
+    private final Node<T> leftReversed;
+
+    /**
+     * Length of this.left.
+     */
+    private final int leftLength;
+
+    /**
+     * this.right, starting from its first entry.
+     */
+    private final Node<T> right;
+
+    /**
+     * Length of this.right.
+     */
+    private final int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.leftReversed is a chain of $this.leftLength nodes linked by
+     *  tail, ending with null, whose heads are not null]  and
+     * [$this.right is a chain of $this.rightLength nodes linked by tail,
+     *  ending with null, whose heads are not null]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert chainHasLength(this.leftReversed, this.leftLength) : ""
+                + "Violation of: [$this.leftReversed is a chain of"
+                + " $this.leftLength nodes linked by tail, ending with null,"
+                + " whose heads are not null]";
+        assert chainHasLength(this.right, this.rightLength) : ""
+                + "Violation of: [$this.right is a chain of $this.rightLength"
+                + " nodes linked by tail, ending with null, whose heads are"
+                + " not null]";
+
+        return true;
+    }
+
+    /**
+     * Reports whether {@code n} starts a chain of {@code length} nodes with
+     * non-null heads.
+     *
+     * @param <T>
+     *            type of entry in the chain
+     * @param n
+     *            the first node of the chain, or null
+     * @param length
+     *            the expected number of nodes
+     * @return true iff the chain has {@code length} nodes and none of their
+     *         heads is null
+     */
+    private static <T> boolean chainHasLength(Node<T> n, int length) {
+        Node<T> p = n;
+        int count = 0;
+        while ((p != null) && (count <= length) && (p.head != null)) {
+            count++;
+            p = p.tail;
+        }
+        return (p == null) && (count == length);
+    }
+
+    /**
+     * Constructor from representation.
+     *
+     * @param leftReversed
+     *            this.left, starting from its last entry
+     * @param leftLength
+     *            length of this.left
+     * @param right
+     *            this.right, starting from its first entry
+     * @param rightLength
+     *            length of this.right
+     */
+    private ZipperList(Node<T> leftReversed, int leftLength, Node<T> right,
+            int rightLength) {
+        this.leftReversed = leftReversed;
+        this.leftLength = leftLength;
+        this.right = right;
+        this.rightLength = rightLength;
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Returns the empty list.
+     *
+     * @param <T>
+     *            type of {@code ZipperList} entries
+     * @return the empty list
+     * @ensures empty = (<>, <>)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ZipperList<T> empty() {
+        /*
+         * This cast cannot fail at run time: the empty list holds no entries
+         * of any type.
+         */
+        return (ZipperList<T>) EMPTY;
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+        if (obj == this) {
+            result = true;
+        } else if (obj instanceof ZipperList<?>) {
+            ZipperList<?> other = (ZipperList<?>) obj;
+            if ((this.leftLength == other.leftLength)
+                    && (this.rightLength == other.rightLength)) {
+                result = true;
+                Iterator<T> it = this.iterator();
+                Iterator<?> otherIt = other.iterator();
+                while (result && it.hasNext()) {
+                    result = it.next().equals(otherIt.next());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.leftLength;
+        for (T x : this) {
+            hash = 31 * hash + x.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(<");
+        int i = 0;
+        for (T x : this) {
+            if (i == this.leftLength) {
+                sb.append(">,<");
+            } else if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(x);
+            i++;
+        }
+        if (i == this.leftLength) {
+            sb.append(">,<");
+        }
+        sb.append(">)");
+        return sb.toString();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Returns {@code this} with {@code x} added to the beginning of
+     * {@code this.right}.
+     *
+     * @param x
+     *            the entry to be added
+     * @return the new version
+     * @requires x is not null
+     * @ensures <pre>
+     * addRightFront = (this.left, <x> * this.right)
+     * </pre>
+     */
+    public ZipperList<T> addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        return new ZipperList<T>(this.leftReversed, this.leftLength,
+                new Node<T>(x, this.right), this.rightLength + 1);
+    }
+
+    /**
+     * Returns {@code this} with the entry at the front of {@code this.right}
+     * removed; use {@code rightFront} first to get the entry.
+     *
+     * @return the new version
+     * @requires this.right /= <>
+     * @ensures this.right = <rightFront> * removeRightFront.right  and
+     *          removeRightFront.left = this.left
+     */
+    public ZipperList<T> removeRightFront() {
+        assert this.rightLength > 0 : "Violation of: this.right /= <>";
+        return new ZipperList<T>(this.leftReversed, this.leftLength,
+                this.right.tail, this.rightLength - 1);
+    }
+
+    /**
+     * Returns {@code this} with the position advanced by one.
+     *
+     * @return the new version
+     * @requires this.right /= <>
+     * @ensures <pre>
+     * advance.left * advance.right = this.left * this.right  and
+     * |advance.left| = |this.left| + 1
+     * </pre>
+     */
+    public ZipperList<T> advance() {
+        assert this.rightLength > 0 : "Violation of: this.right /= <>";
+        return new ZipperList<T>(
+                new Node<T>(this.right.head, this.leftReversed),
+                this.leftLength + 1, this.right.tail, this.rightLength - 1);
+    }
+
+    /**
+     * Returns {@code this} with the position moved to the beginning.
+     *
+     * @return the new version
+     * @ensures moveToStart = (<>, this.left * this.right)
+     */
+    public ZipperList<T> moveToStart() {
+        Node<T> r = this.right;
+        Node<T> p = this.leftReversed;
+        while (p != null) {
+            r = new Node<T>(p.head, r);
+            p = p.tail;
+        }
+        return new ZipperList<T>(null, 0, r,
+                this.leftLength + this.rightLength);
+    }
+
+    /**
+     * Reports length of {@code this.left}.
+     *
+     * @return the length of {@code this.left}
+     * @ensures leftLength = |this.left|
+     */
+    public int leftLength() {
+        return this.leftLength;
+    }
+
+    /**
+     * Reports length of {@code this.right}.
+     *
+     * @return the length of {@code this.right}
+     * @ensures rightLength = |this.right|
+     */
+    public int rightLength() {
+        return this.rightLength;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ZipperListIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code ZipperList}:
+     * visits this.left, which it first reverses into an array, then
+     * this.right.
+     */
+    private final class ZipperListIterator implements Iterator<T> {
+
+        /**
+         * Entries of this.left, in order.
+         */
+        private final Object[] left;
+
+        /**
+         * Position in left of the next entry, or left.length once this.left
+         * has been visited.
+         */
+        private int index;
+
+        /**
+         * Next node of this.right to visit.
+         */
+        private Node<T> current;
+
+        /**
+         * No-argument constructor.
+         */
+        private ZipperListIterator() {
+            this.left = new Object[ZipperList.this.leftLength];
+            Node<T> p = ZipperList.this.leftReversed;
+            for (int i = this.left.length - 1; i >= 0; i--) {
+                this.left[i] = p.head;
+                p = p.tail;
+            }
+            this.index = 0;
+            this.current = ZipperList.this.right;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (this.index < this.left.length) || (this.current != null);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x;
+            if (this.index < this.left.length) {
+                /*
+                 * This cast cannot fail: left holds only entries of this.left.
+                 */
+                x = (T) this.left[this.index];
+                this.index++;
+            } else {
+                x = this.current.head;
+                this.current = this.current.tail;
+            }
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the front of {@code this.right}.
+     *
+     * @return the front entry of {@code this.right}
+     * @requires this.right /= <>
+     * @ensures <rightFront> is prefix of this.right
+     */
+    public T rightFront() {
+        assert this.rightLength > 0 : "Violation of: this.right /= <>";
+        return this.right.head;
+    }
+
+    /**
+     * Returns {@code this} with the front of {@code this.right} replaced by
+     * {@code x}.
+     *
+     * @param x
+     *            the new entry
+     * @return the new version
+     * @requires x is not null  and  this.right /= <>
+     * @ensures <pre>
+     * replaceRightFront = (this.left, <x> * this.right[1, |this.right|))
+     * </pre>
+     */
+    public ZipperList<T> replaceRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.rightLength > 0 : "Violation of: this.right /= <>";
+        return new ZipperList<T>(this.leftReversed, this.leftLength,
+                new Node<T>(x, this.right.tail), this.rightLength);
+    }
+
+    /**
+     * Returns {@code this} with the position moved to the end.
+     *
+     * @return the new version
+     * @ensures moveToFinish = (this.left * this.right, <>)
+     */
+    public ZipperList<T> moveToFinish() {
+        Node<T> l = this.leftReversed;
+        Node<T> p = this.right;
+        while (p != null) {
+            l = new Node<T>(p.head, l);
+            p = p.tail;
+        }
+        return new ZipperList<T>(l, this.leftLength + this.rightLength, null,
+                0);
+    }
+
+    /**
+     * Returns {@code this} with the position retreated by one.
+     *
+     * @return the new version
+     * @requires this.left /= <>
+     * @ensures <pre>
+     * retreat.left * retreat.right = this.left * this.right  and
+     * |retreat.left| = |this.left| - 1
+     * </pre>
+     */
+    public ZipperList<T> retreat() {
+        assert this.leftLength > 0 : "Violation of: this.left /= <>";
+        return new ZipperList<T>(this.leftReversed.tail, this.leftLength - 1,
+                new Node<T>(this.leftReversed.head, this.right),
+                this.rightLength + 1);
+    }
+
+}
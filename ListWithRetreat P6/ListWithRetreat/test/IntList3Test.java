@@ -0,0 +1,238 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntList3}.
+ */
+public final class IntList3Test {
+
+    /**
+     * Number of entries large enough for the arrays to grow several times.
+     */
+    private static final int LARGE_SIZE = 200;
+
+    /**
+     * Constructs an {@code IntList3} with the entries in {@code args} and length
+     * of the left string equal to {@code leftLength}.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param args
+     *            the entries for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= args.length
+     * @ensures <pre>
+     * createFromArgs = ([first leftLength entries in args],
+     *   [remaining entries in args])
+     * </pre>
+     */
+    private static IntList3 createFromArgs(int leftLength, int... args) {
+        IntList3 list = new IntList3();
+        for (int i = args.length - 1; i >= 0; i--) {
+            list.addRightFront(args[i]);
+        }
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+        return list;
+    }
+
+    @Test
+    public void testConstructor() {
+        /*
+         * Set up variables and call method under test
+         */
+        IntList3 list = new IntList3();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, list.leftLength());
+        assertEquals(0, list.rightLength());
+        assertArrayEquals(new int[0], list.toArray());
+    }
+
+    @Test
+    public void testAddRightFront() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(1, 3, 7);
+        IntList3 listExpected = createFromArgs(1, 3, 5, 7);
+        /*
+         * Call method under test
+         */
+        list.addRightFront(5);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testRemoveRightFront() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(1, 3, 5, 7);
+        IntList3 listExpected = createFromArgs(1, 3, 7);
+        /*
+         * Call method under test
+         */
+        int x = list.removeRightFront();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(5, x);
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testAdvanceAndRetreat() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(1, 3, 5, 7);
+        IntList3 listExpected = createFromArgs(1, 3, 5, 7);
+        /*
+         * Call method under test
+         */
+        list.advance();
+        list.advance();
+        list.retreat();
+        list.retreat();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+        assertEquals(5, list.rightFront());
+    }
+
+    @Test
+    public void testMoveToStartAndFinish() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(1, 3, 5, 7);
+        IntList3 listExpected = createFromArgs(3, 3, 5, 7);
+        /*
+         * Call method under test
+         */
+        list.moveToStart();
+        list.moveToFinish();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+        assertEquals("(<3,5,7>,<>)", list.toString());
+    }
+
+    @Test
+    public void testManyAddsAndRemoves() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = new IntList3();
+        int[] expected = new int[LARGE_SIZE];
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            expected[i] = i;
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            list.addRightFront(-1);
+            list.addRightFront(i);
+            list.advance();
+            list.removeRightFront();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertArrayEquals(expected, list.toArray());
+        assertEquals(LARGE_SIZE, list.leftLength());
+    }
+
+    @Test
+    public void testAddAll() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(1, 1, 9);
+        IntList3 listExpected = createFromArgs(1, 1, 3, 5, 7, 9);
+        /*
+         * Call method under test
+         */
+        list.addAll(new int[] { 3, 5, 7 });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testAddAllMany() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = new IntList3();
+        int[] values = new int[LARGE_SIZE];
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            values[i] = LARGE_SIZE - i;
+        }
+        /*
+         * Call method under test
+         */
+        list.addAll(values);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertArrayEquals(values, list.toArray());
+        assertEquals(LARGE_SIZE, list.rightLength());
+    }
+
+    @Test
+    public void testIterator() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(2, 3, 5, 7);
+        int sum = 0;
+        /*
+         * Call method under test
+         */
+        PrimitiveIterator.OfInt it = list.iterator();
+        while (it.hasNext()) {
+            sum += it.nextInt();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(15, sum);
+        assertEquals(2, list.leftLength());
+    }
+
+    @Test
+    public void testTransferFrom() {
+        /*
+         * Set up variables
+         */
+        IntList3 list = createFromArgs(0, 2);
+        IntList3 source = createFromArgs(1, 3, 5);
+        IntList3 listExpected = createFromArgs(1, 3, 5);
+        IntList3 sourceExpected = new IntList3();
+        /*
+         * Call method under test
+         */
+        list.transferFrom(source);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+        assertEquals(sourceExpected, source);
+    }
+
+}
@@ -1,3 +1,9 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
 import components.list.List;
 import components.list.List1L;
 
@@ -16,4 +22,285 @@ public class List3Test extends ListTest {
         return new List1L<String>();
     }
 
+    /*
+     * Test cases for moveToPosition
+     */
+
+    @Test
+    public final void testMoveToPositionMiddle() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(3, "red",
+                "green", "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow");
+        /*
+         * Call method under test
+         */
+        list1.moveToPosition(1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testMoveToPositionEnds() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(3, "red", "green", "blue");
+        /*
+         * Call method under test
+         */
+        list1.moveToPosition(0);
+        list1.moveToPosition(3);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testMoveToPositionAfterAdd() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "blue");
+        List<String> list2 = this.createFromArgsRef(3, "red", "green", "blue",
+                "yellow");
+        list1.moveToPosition(2);
+        list1.addRightFront("yellow");
+        list1.moveToPosition(1);
+        list1.addRightFront("green");
+        /*
+         * Call method under test
+         */
+        list1.moveToPosition(3);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testMoveToPositionBetweenEdits() {
+        /*
+         * Set up variables
+         */
+        final int n = 300;
+        List3<String> list1 = new List3<String>();
+        List<String> list2 = this.createFromArgsRef(0);
+        for (int i = 0; i < n; i++) {
+            list1.addRightFront(Integer.toString(i));
+            list2.addRightFront(Integer.toString(i));
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < n; i++) {
+            int k = (i * 37) % (list2.leftLength() + list2.rightLength() + 1);
+            list1.moveToPosition(k);
+            list2.moveToStart();
+            for (int j = 0; j < k; j++) {
+                list2.advance();
+            }
+            if ((i % 3 == 0) && (list2.rightLength() > 0)) {
+                list1.removeRightFront();
+                list2.removeRightFront();
+            } else {
+                list1.addRightFront("x" + i);
+                list2.addRightFront("x" + i);
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /*
+     * Test cases for splice, split, and append
+     */
+
+    @Test
+    public final void testSplice() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "yellow");
+        List3<String> other = (List3<String>) this.createFromArgsTest(1,
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow");
+        List<String> otherExpected = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.splice(other);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(otherExpected, other);
+    }
+
+    @Test
+    public final void testSpliceEmpty() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "yellow");
+        List3<String> other = (List3<String>) this.createFromArgsTest(0);
+        List<String> list2 = this.createFromArgsRef(1, "red", "yellow");
+        /*
+         * Call method under test
+         */
+        list1.splice(other);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testSplit() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green");
+        List<String> rightExpected = this.createFromArgsRef(0, "blue",
+                "yellow");
+        /*
+         * Call method under test
+         */
+        List3<String> right = list1.split();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(rightExpected, right);
+    }
+
+    @Test
+    public final void testSplitAtFinish() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green");
+        List<String> rightExpected = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        List3<String> right = list1.split();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(rightExpected, right);
+    }
+
+    @Test
+    public final void testAppend() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> extension = this.createFromArgsTest(1, "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow");
+        List<String> extensionExpected = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.append(extension);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(extensionExpected, extension);
+    }
+
+    /*
+     * Test cases for spliterator and streams
+     */
+
+    @Test
+    public final void testStream() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue");
+        /*
+         * Call method under test
+         */
+        String joined = list1.stream().collect(Collectors.joining(","));
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("red,green,blue", joined);
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testParallelStreamMany() {
+        /*
+         * Set up variables
+         */
+        final int n = 1000;
+        List3<String> list1 = new List3<String>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = n - 1; i >= 0; i--) {
+            list1.addRightFront(Integer.toString(i));
+        }
+        for (int i = 0; i < n; i++) {
+            expected.append(i);
+        }
+        /*
+         * Call method under test
+         */
+        String joined = list1.parallelStream().collect(Collectors.joining());
+        long count = list1.parallelStream().filter(s -> s.endsWith("7"))
+                .count();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(expected.toString(), joined);
+        assertEquals(n / 10, count);
+    }
+
+    @Test
+    public final void testParallelStreamWithIndex() {
+        /*
+         * Set up variables
+         */
+        final int n = 500;
+        List3<String> list1 = new List3<String>();
+        for (int i = n - 1; i >= 0; i--) {
+            list1.addRightFront(Integer.toString(i));
+        }
+        list1.moveToPosition(n / 2);
+        /*
+         * Call method under test
+         */
+        long sum = list1.parallelStream().mapToLong(Long::parseLong).sum();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals((long) n * (n - 1) / 2, sum);
+        assertEquals(n / 2, list1.leftLength());
+    }
+
 }
@@ -0,0 +1,76 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List3} with a pool of removed
+ * nodes.
+ */
+public class List3TestPool extends ListTest {
+
+    /**
+     * Maximum number of removed nodes kept for reuse by the lists under test.
+     */
+    private static final int POOL_CAPACITY = 4;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List3<String>(POOL_CAPACITY);
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /*
+     * Test cases for reusing removed nodes
+     */
+
+    @Test
+    public final void testChurn() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "blue");
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < 2 * POOL_CAPACITY; i++) {
+            for (int j = 0; j <= POOL_CAPACITY; j++) {
+                list1.addRightFront(Integer.toString(j));
+            }
+            for (int j = POOL_CAPACITY; j >= 0; j--) {
+                assertEquals(Integer.toString(j), list1.removeRightFront());
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testNewInstanceAfterRemove() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(0, "red", "blue");
+        List<String> list2 = this.createFromArgsRef(0, "green");
+        list1.removeRightFront();
+        /*
+         * Call method under test
+         */
+        List<String> list3 = list1.newInstance();
+        list3.addRightFront("green");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list3);
+    }
+
+}
@@ -0,0 +1,60 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List5}.
+ */
+public class List5Test extends ListTest {
+
+    /**
+     * Number of entries large enough for the list to need several nodes.
+     */
+    private static final int LARGE_SIZE = 100;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List5<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /*
+     * Test cases for several nodes
+     */
+
+    @Test
+    public final void testRemoveRightFrontManyFromMiddle() {
+        /*
+         * Set up variables
+         */
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+        }
+        for (int i = 0; i < LARGE_SIZE / 4; i++) {
+            list.advance();
+            listExpected.advance();
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < LARGE_SIZE / 2; i++) {
+            assertEquals(listExpected.removeRightFront(),
+                    list.removeRightFront());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+}
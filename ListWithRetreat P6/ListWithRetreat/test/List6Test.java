@@ -0,0 +1,286 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * JUnit test fixture for {@code List6}.
+ */
+public final class List6Test {
+
+    /**
+     * Number of characters large enough for the rope to need many leaves.
+     */
+    private static final int LARGE_SIZE = 3000;
+
+    /**
+     * Constructs a {@code List6} with the characters of {@code text} and
+     * length of the left string equal to {@code leftLength}.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param text
+     *            the characters for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= |text|
+     * @ensures <pre>
+     * createFromText = ([first leftLength characters of text],
+     *   [remaining characters of text])
+     * </pre>
+     */
+    private static List6 createFromText(int leftLength, String text) {
+        List6 list = new List6();
+        for (int i = text.length() - 1; i >= 0; i--) {
+            list.addRightFront(text.charAt(i));
+        }
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+        return list;
+    }
+
+    /**
+     * Constructs a reference {@code List<Character>} with the characters of
+     * {@code text} and length of the left string equal to {@code leftLength}.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param text
+     *            the characters for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= |text|
+     * @ensures <pre>
+     * createRefFromText = ([first leftLength characters of text],
+     *   [remaining characters of text])
+     * </pre>
+     */
+    private static List<Character> createRefFromText(int leftLength,
+            String text) {
+        List<Character> list = new List1L<Character>();
+        for (int i = text.length() - 1; i >= 0; i--) {
+            list.addRightFront(text.charAt(i));
+        }
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+        return list;
+    }
+
+    /**
+     * Returns a string of {@code n} characters cycling through the lowercase
+     * letters.
+     *
+     * @param n
+     *            the length of the string
+     * @return the string
+     */
+    private static String letters(int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testConstructor() {
+        /*
+         * Set up variables and call method under test
+         */
+        List6 list = new List6();
+        List<Character> listExpected = new List1L<Character>();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testAddRightFrontMany() {
+        /*
+         * Set up variables
+         */
+        String text = letters(LARGE_SIZE);
+        List6 list = new List6();
+        List<Character> listExpected = createRefFromText(LARGE_SIZE / 3, text);
+        /*
+         * Call method under test
+         */
+        for (int i = text.length() - 1; i >= 0; i--) {
+            list.addRightFront(text.charAt(i));
+        }
+        for (int i = 0; i < LARGE_SIZE / 3; i++) {
+            list.advance();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testAddRightFrontAtMiddleMany() {
+        /*
+         * Set up variables
+         */
+        List6 list = createFromText(1, "ab");
+        StringBuilder expected = new StringBuilder("a");
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            char c = (char) ('a' + i % 26);
+            list.addRightFront(c);
+            list.advance();
+            expected.append(c);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        expected.append('b');
+        assertEquals(createRefFromText(LARGE_SIZE + 1, expected.toString()),
+                list);
+    }
+
+    @Test
+    public void testRemoveRightFrontMany() {
+        /*
+         * Set up variables
+         */
+        String text = letters(LARGE_SIZE);
+        List6 list = createFromText(LARGE_SIZE / 2, text);
+        List<Character> listExpected = createRefFromText(LARGE_SIZE / 2,
+                text.substring(0, LARGE_SIZE / 2));
+        /*
+         * Call method under test
+         */
+        for (int i = LARGE_SIZE / 2; i < LARGE_SIZE; i++) {
+            assertEquals(Character.valueOf(text.charAt(i)),
+                    list.removeRightFront());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testRetreatAcrossLeaves() {
+        /*
+         * Set up variables
+         */
+        String text = letters(LARGE_SIZE);
+        List6 list = createFromText(LARGE_SIZE, text);
+        List<Character> listExpected = createRefFromText(0, text);
+        /*
+         * Call method under test
+         */
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            list.retreat();
+            assertEquals(Character.valueOf(text.charAt(i)), list.rightFront());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testMoveToFinish() {
+        /*
+         * Set up variables
+         */
+        String text = letters(LARGE_SIZE);
+        List6 list = createFromText(5, text);
+        List<Character> listExpected = createRefFromText(LARGE_SIZE, text);
+        /*
+         * Call method under test
+         */
+        list.moveToFinish();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testMoveToPosition() {
+        /*
+         * Set up variables
+         */
+        String text = letters(LARGE_SIZE);
+        List6 list = createFromText(0, text);
+        List<Character> listExpected = createRefFromText(LARGE_SIZE / 2 + 7,
+                text);
+        /*
+         * Call method under test
+         */
+        list.moveToPosition(LARGE_SIZE / 2 + 7);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+        assertEquals(Character.valueOf(text.charAt(LARGE_SIZE / 2 + 7)),
+                list.rightFront());
+    }
+
+    @Test
+    public void testReplaceRightFront() {
+        /*
+         * Set up variables
+         */
+        List6 list = createFromText(1, "cat");
+        List<Character> listExpected = createRefFromText(1, "cot");
+        /*
+         * Call method under test
+         */
+        Character c = list.replaceRightFront('o');
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(Character.valueOf('a'), c);
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testSubstring() {
+        /*
+         * Set up variables
+         */
+        String text = letters(LARGE_SIZE);
+        List6 list = createFromText(10, text);
+        List<Character> listExpected = createRefFromText(10, text);
+        /*
+         * Call method under test
+         */
+        String s = list.substring(100, LARGE_SIZE - 100);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(text.substring(100, LARGE_SIZE - 100), s);
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public void testTransferFrom() {
+        /*
+         * Set up variables
+         */
+        List6 list = new List6();
+        List6 source = createFromText(2, "hello");
+        List<Character> listExpected = createRefFromText(2, "hello");
+        List<Character> sourceExpected = new List1L<Character>();
+        /*
+         * Call method under test
+         */
+        list.transferFrom(source);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+        assertEquals(sourceExpected, source);
+    }
+
+}
@@ -12,6 +12,12 @@ import components.list.List;
  */
 public abstract class ListTest {
 
+    /**
+     * Number of entries large enough for an implementation to outgrow its
+     * initial storage several times.
+     */
+    private static final int LARGE_SIZE = 100;
+
     /**
      * Invokes the appropriate {@code List} constructor for the implementation
      * under test and returns the result.
@@ -825,4 +831,63 @@ public abstract class ListTest {
         assertEquals(list2, list1);
     }
 
+    /*
+     * Test cases for many entries
+     */
+
+    @Test
+    public final void testAddRightFrontManyAndRetreat() {
+        /*
+         * Set up variables
+         */
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            list.addRightFront(Integer.toString(i));
+            list.advance();
+            listExpected.addRightFront(Integer.toString(i));
+            listExpected.advance();
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < LARGE_SIZE / 2; i++) {
+            list.retreat();
+        }
+        listExpected.moveToStart();
+        for (int i = 0; i < LARGE_SIZE / 2; i++) {
+            listExpected.advance();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+    }
+
+    @Test
+    public final void testMoveToStartAndFinishMany() {
+        /*
+         * Set up variables
+         */
+        List<String> list = this.constructorTest();
+        List<String> listExpected = this.constructorRef();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            list.addRightFront(Integer.toString(i));
+            listExpected.addRightFront(Integer.toString(i));
+        }
+        for (int i = 0; i < LARGE_SIZE / 3; i++) {
+            list.advance();
+        }
+        /*
+         * Call method under test
+         */
+        list.moveToFinish();
+        list.moveToStart();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, list);
+        assertEquals(Integer.toString(LARGE_SIZE - 1), list.rightFront());
+    }
+
 }
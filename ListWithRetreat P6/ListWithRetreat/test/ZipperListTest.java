@@ -0,0 +1,201 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code ZipperList<String>}.
+ */
+public final class ZipperListTest {
+
+    /**
+     * Number of versions kept in the test cases below.
+     */
+    private static final int VERSIONS = 1000;
+
+    /**
+     * Creates and returns a {@code ZipperList<String>} with the given entries
+     * and length of the left string equal to {@code leftLength}.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param args
+     *            the entries for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= args.length
+     * @ensures <pre>
+     * createFromArgs = ([first leftLength entries in args],
+     *   [remaining entries in args])
+     * </pre>
+     */
+    private static ZipperList<String> createFromArgs(int leftLength,
+            String... args) {
+        ZipperList<String> list = ZipperList.empty();
+        for (int i = args.length - 1; i >= 0; i--) {
+            list = list.addRightFront(args[i]);
+        }
+        for (int i = 0; i < leftLength; i++) {
+            list = list.advance();
+        }
+        return list;
+    }
+
+    @Test
+    public void testEmpty() {
+        /*
+         * Set up variables and call method under test
+         */
+        ZipperList<String> list = ZipperList.empty();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, list.leftLength());
+        assertEquals(0, list.rightLength());
+        assertEquals("(<>,<>)", list.toString());
+    }
+
+    @Test
+    public void testAddRightFront() {
+        /*
+         * Set up variables
+         */
+        ZipperList<String> list = createFromArgs(1, "red", "blue");
+        ZipperList<String> listExpected = createFromArgs(1, "red", "green",
+                "blue");
+        ZipperList<String> oldExpected = createFromArgs(1, "red", "blue");
+        /*
+         * Call method under test
+         */
+        ZipperList<String> result = list.addRightFront("green");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, result);
+        assertEquals(oldExpected, list);
+    }
+
+    @Test
+    public void testRemoveRightFront() {
+        /*
+         * Set up variables
+         */
+        ZipperList<String> list = createFromArgs(1, "red", "green", "blue");
+        ZipperList<String> listExpected = createFromArgs(1, "red", "blue");
+        /*
+         * Call method under test
+         */
+        String front = list.rightFront();
+        ZipperList<String> result = list.removeRightFront();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("green", front);
+        assertEquals(listExpected, result);
+        assertEquals("(<red>,<green,blue>)", list.toString());
+    }
+
+    @Test
+    public void testAdvanceAndRetreat() {
+        /*
+         * Set up variables
+         */
+        ZipperList<String> list = createFromArgs(1, "red", "green", "blue");
+        ZipperList<String> advancedExpected = createFromArgs(2, "red",
+                "green", "blue");
+        /*
+         * Call method under test
+         */
+        ZipperList<String> advanced = list.advance();
+        ZipperList<String> retreated = advanced.retreat();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(advancedExpected, advanced);
+        assertEquals(list, retreated);
+        assertEquals("green", retreated.rightFront());
+    }
+
+    @Test
+    public void testMoveToStartAndFinish() {
+        /*
+         * Set up variables
+         */
+        ZipperList<String> list = createFromArgs(2, "red", "green", "blue");
+        ZipperList<String> startExpected = createFromArgs(0, "red", "green",
+                "blue");
+        ZipperList<String> finishExpected = createFromArgs(3, "red", "green",
+                "blue");
+        /*
+         * Call method under test
+         */
+        ZipperList<String> start = list.moveToStart();
+        ZipperList<String> finish = list.moveToFinish();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(startExpected, start);
+        assertEquals(finishExpected, finish);
+        assertEquals("(<red,green,blue>,<>)", finish.toString());
+    }
+
+    @Test
+    public void testReplaceRightFront() {
+        /*
+         * Set up variables
+         */
+        ZipperList<String> list = createFromArgs(1, "red", "green", "blue");
+        ZipperList<String> listExpected = createFromArgs(1, "red", "yellow",
+                "blue");
+        /*
+         * Call method under test
+         */
+        ZipperList<String> result = list.replaceRightFront("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(listExpected, result);
+        assertEquals("green", list.rightFront());
+    }
+
+    @Test
+    public void testManyVersions() {
+        /*
+         * Set up variables
+         */
+        final int n = VERSIONS + 1;
+        @SuppressWarnings("unchecked")
+        ZipperList<String>[] versions =
+                (ZipperList<String>[]) new ZipperList<?>[n];
+        versions[0] = ZipperList.empty();
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < VERSIONS; i++) {
+            versions[i + 1] = versions[i].addRightFront(Integer.toString(i))
+                    .advance();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        for (int i = 0; i <= VERSIONS; i++) {
+            assertEquals(i, versions[i].leftLength());
+            assertEquals(0, versions[i].rightLength());
+        }
+        assertEquals(Integer.toString(VERSIONS / 2 - 1),
+                versions[VERSIONS / 2].retreat().rightFront());
+    }
+
+    @Test
+    public void testHashCode() {
+        /*
+         * Set up variables
+         */
+        ZipperList<String> list1 = createFromArgs(1, "red", "blue");
+        ZipperList<String> list2 = createFromArgs(0, "red", "blue").advance();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(list1.hashCode(), list2.hashCode());
+    }
+
+}
@@ -1,17 +1,25 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 import components.naturalnumber.NaturalNumber;
 import components.naturalnumber.NaturalNumberSecondary;
 
 /**
- * {@code NaturalNumber} represented as a {@code String} with implementations of
- * primary methods.
+ * {@code NaturalNumber} represented as a buffer of decimal digits, most
+ * significant first, with implementations of primary methods.
  *
  * @convention <pre>
- * [all characters of $this.rep are '0' through '9']  and
- * [$this.rep does not start with '0']
+ * [$this.digits is not null]  and
+ * 0 <= $this.length <= |$this.digits|  and
+ * [each of the first $this.length entries of $this.digits is in [0, 9]]  and
+ * [if $this.length > 0 then the entry at position 0 in $this.digits
+ *  is not 0]
  * </pre>
  * @correspondence <pre>
- * this = [if $this.rep = "" then 0
- *         else the decimal number whose ordinary depiction is $this.rep]
+ * this = [if $this.length = 0 then 0
+ *         else the decimal number whose ordinary depiction is the first
+ *         $this.length entries of $this.digits]
  * </pre>
  *
  * @authors Roshan Varma & Quantez Merchant
@@ -24,16 +32,972 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
      */
 
     /**
-     * Representation of {@code this}.
+     * Number of digits in the buffer created for a new number.
      */
-    private String rep;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Digits of {@code this}, most significant first; only the first
+     * {@code this.length} are in use.
+     */
+    private byte[] digits;
+
+    /**
+     * Number of digits in use.
+     */
+    private int length;
 
     /**
      * Creator of initial representation.
      */
     private void createNewRep() {
-        this.rep = "";
+        this.digits = new byte[INITIAL_CAPACITY];
+        this.length = 0;
+    }
+
+    /**
+     * Appends the digits of {@code s} to {@code this}.
+     *
+     * @param s
+     *            the digits to append
+     * @updates this
+     * @requires [s consists of characters '0' through '9']
+     * @ensures <pre>
+     * this = #this * 10^|s| + [the decimal number whose ordinary depiction
+     *        is s]
+     * </pre>
+     */
+    private void appendDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            this.multiplyBy10(s.charAt(i) - '0');
+        }
+    }
+
+    /**
+     * Base of the limbs used by multiplication; each limb holds
+     * {@code DIGITS_PER_LIMB} decimal digits.
+     */
+    private static final int LIMB_BASE = 10_000;
+
+    /**
+     * Number of decimal digits in one limb.
+     */
+    private static final int DIGITS_PER_LIMB = 4;
+
+    /**
+     * Number of limbs in the shorter operand below which multiplication uses
+     * the schoolbook method rather than Karatsuba's.
+     */
+    private static final int KARATSUBA_THRESHOLD = 40;
+
+    /**
+     * Number of limbs in the shorter operand from which the Karatsuba
+     * subproducts are computed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1_000;
+
+    /**
+     * Number of limbs in the shorter operand from which multiplication uses
+     * number-theoretic transforms.
+     */
+    private static final int NTT_THRESHOLD = 4_000;
+
+    /**
+     * First prime modulus of the number-theoretic transforms, 119 * 2^23 + 1.
+     */
+    private static final long NTT_PRIME_1 = 998_244_353L;
+
+    /**
+     * Second prime modulus of the number-theoretic transforms, 7 * 2^26 + 1.
+     */
+    private static final long NTT_PRIME_2 = 469_762_049L;
+
+    /**
+     * Primitive root modulo both {@code NTT_PRIME_1} and {@code NTT_PRIME_2}.
+     */
+    private static final long NTT_ROOT = 3;
+
+    /**
+     * Largest transform length supported by both primes, 2^23.
+     */
+    private static final int NTT_MAX_LENGTH = 1 << 23;
+
+    /**
+     * Number of limbs in both the divisor and the quotient from which
+     * division uses a Newton-iteration reciprocal rather than Knuth's
+     * Algorithm D.
+     */
+    private static final int NEWTON_THRESHOLD = 1_500;
+
+    /**
+     * Precision, in limbs, at or below which the Newton reciprocal is
+     * computed directly by long division.
+     */
+    private static final int NEWTON_BASE_PRECISION = 16;
+
+    /**
+     * Returns the digits of {@code n} grouped into base-{@code LIMB_BASE}
+     * limbs, least significant first.
+     *
+     * @param n
+     *            the number
+     * @return the limbs of n
+     * @ensures <pre>
+     * n = [sum of (entry at position i in toLimbs) * LIMB_BASE^i]  and
+     * [each entry of toLimbs is in [0, LIMB_BASE)]
+     * </pre>
+     */
+    private static int[] toLimbs(NaturalNumber n) {
+        byte[] d;
+        int len;
+        if (n instanceof NaturalNumber3) {
+            NaturalNumber3 m = (NaturalNumber3) n;
+            d = m.digits;
+            len = m.length;
+        } else {
+            String s = n.toString();
+            d = new byte[s.length()];
+            len = 0;
+            if (!n.isZero()) {
+                for (len = 0; len < s.length(); len++) {
+                    d[len] = (byte) (s.charAt(len) - '0');
+                }
+            }
+        }
+        int[] limbs = new int[(len + DIGITS_PER_LIMB - 1) / DIGITS_PER_LIMB];
+        for (int i = 0; i < limbs.length; i++) {
+            // gather the i-th group of digits counting from the end
+            int end = len - i * DIGITS_PER_LIMB;
+            int start = Math.max(0, end - DIGITS_PER_LIMB);
+            int limb = 0;
+            for (int j = start; j < end; j++) {
+                limb = limb * 10 + d[j];
+            }
+            limbs[i] = limb;
+        }
+        return limbs;
+    }
+
+    /**
+     * Sets {@code this} to the number held in {@code limbs}.
+     *
+     * @param limbs
+     *            the limbs, least significant first
+     * @replaces this
+     * @requires [each entry of limbs is in [0, LIMB_BASE)]
+     * @ensures this = [sum of (entry at position i in limbs) * LIMB_BASE^i]
+     */
+    private void setFromLimbs(int[] limbs) {
+        int top = limbs.length - 1;
+        while ((top >= 0) && (limbs[top] == 0)) {
+            top--;
+        }
+        this.createNewRep();
+        if (top >= 0) {
+            int capacity = (top + 1) * DIGITS_PER_LIMB;
+            if (capacity > this.digits.length) {
+                this.digits = new byte[capacity];
+            }
+            // the most significant limb is written without leading zeros
+            this.appendDigits(Integer.toString(limbs[top]));
+            for (int i = top - 1; i >= 0; i--) {
+                int limb = limbs[i];
+                for (int j = DIGITS_PER_LIMB - 1; j >= 0; j--) {
+                    this.digits[this.length + j] = (byte) (limb % 10);
+                    limb /= 10;
+                }
+                this.length += DIGITS_PER_LIMB;
+            }
+        }
+    }
+
+    /**
+     * Returns the limbs {@code a[from, to)}, or an empty array if
+     * {@code from >= a.length}.
+     *
+     * @param a
+     *            the limbs
+     * @param from
+     *            first position to copy
+     * @param to
+     *            position past the last one to copy
+     * @return the limbs a[from, min(to, |a|))
+     */
+    private static int[] slice(int[] a, int from, int to) {
+        int[] result;
+        if (from >= a.length) {
+            result = new int[0];
+        } else {
+            result = Arrays.copyOfRange(a, from, Math.min(to, a.length));
+        }
+        return result;
+    }
+
+    /**
+     * Adds the limbs of {@code x} into {@code r} starting at position
+     * {@code offset}, propagating the carry.
+     *
+     * @param r
+     *            the sum
+     * @param offset
+     *            position in r of the first limb of x
+     * @param x
+     *            the limbs to add
+     * @updates r
+     * @requires [the sum fits in r]
+     * @ensures r = #r + x * LIMB_BASE^offset
+     */
+    private static void addInto(int[] r, int offset, int[] x) {
+        int carry = 0;
+        int i = 0;
+        while ((i < x.length) || (carry > 0)) {
+            int t = r[offset + i] + carry;
+            if (i < x.length) {
+                t += x[i];
+            }
+            if (t >= LIMB_BASE) {
+                t -= LIMB_BASE;
+                carry = 1;
+            } else {
+                carry = 0;
+            }
+            r[offset + i] = t;
+            i++;
+        }
+    }
+
+    /**
+     * Subtracts the limbs of {@code x} from {@code r}, propagating the
+     * borrow.
+     *
+     * @param r
+     *            the difference
+     * @param x
+     *            the limbs to subtract
+     * @updates r
+     * @requires r >= x
+     * @ensures r = #r - x
+     */
+    private static void subtractFrom(int[] r, int[] x) {
+        int borrow = 0;
+        int i = 0;
+        while ((i < x.length) || (borrow > 0)) {
+            int t = r[i] - borrow;
+            if (i < x.length) {
+                t -= x[i];
+            }
+            if (t < 0) {
+                t += LIMB_BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            r[i] = t;
+            i++;
+        }
+    }
+
+    /**
+     * Adds the limbs of {@code x} and {@code y}.
+     *
+     * @param x
+     *            the first limbs
+     * @param y
+     *            the second limbs
+     * @return the limbs of x + y, one longer than the longer of the two
+     */
+    private static int[] sum(int[] x, int[] y) {
+        int[] r = Arrays.copyOf(x, Math.max(x.length, y.length) + 1);
+        addInto(r, 0, y);
+        return r;
+    }
+
+    /**
+     * Multiplies {@code a} by {@code b} by the schoolbook method.
+     *
+     * @param a
+     *            the first limbs
+     * @param b
+     *            the second limbs
+     * @return the limbs of a * b, of length |a| + |b|
+     */
+    private static int[] multiplySchoolbook(int[] a, int[] b) {
+        long[] acc = new long[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            if (ai != 0) {
+                for (int j = 0; j < b.length; j++) {
+                    acc[i + j] += ai * b[j];
+                }
+                // normalize the row before the accumulators can overflow
+                if ((i & 0xFFF) == 0xFFF) {
+                    normalize(acc);
+                }
+            }
+        }
+        normalize(acc);
+        int[] r = new int[acc.length];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = (int) acc[i];
+        }
+        return r;
+    }
+
+    /**
+     * Propagates carries through {@code acc} so that each entry is in
+     * [0, LIMB_BASE).
+     *
+     * @param acc
+     *            the accumulators
+     * @updates acc
+     * @requires [the value held in acc fits in |acc| limbs]
+     * @ensures [acc holds the same value, with each entry in [0, LIMB_BASE)]
+     */
+    private static void normalize(long[] acc) {
+        long carry = 0;
+        for (int i = 0; i < acc.length; i++) {
+            long t = acc[i] + carry;
+            acc[i] = t % LIMB_BASE;
+            carry = t / LIMB_BASE;
+        }
+    }
+
+    /**
+     * Multiplies {@code a} by {@code b}, by Karatsuba's method when both are
+     * at least {@code KARATSUBA_THRESHOLD} limbs long and by the schoolbook
+     * method otherwise, in the calling thread.
+     *
+     * @param a
+     *            the first limbs
+     * @param b
+     *            the second limbs
+     * @return the limbs of a * b, of length |a| + |b|
+     */
+    private static int[] multiplySequential(int[] a, int[] b) {
+        int[] r;
+        if (Math.min(a.length, b.length) < KARATSUBA_THRESHOLD) {
+            r = multiplySchoolbook(a, b);
+        } else {
+            int m = Math.max(a.length, b.length) / 2;
+            int[] a0 = slice(a, 0, m);
+            int[] a1 = slice(a, m, a.length);
+            int[] b0 = slice(b, 0, m);
+            int[] b1 = slice(b, m, b.length);
+            int[] z0 = multiplySequential(a0, b0);
+            int[] z2 = multiplySequential(a1, b1);
+            int[] z1 = multiplySequential(sum(a0, a1), sum(b0, b1));
+            r = combine(a.length + b.length, m, z0, z1, z2);
+        }
+        return r;
+    }
+
+    /**
+     * Combines the three Karatsuba subproducts of {@code a} and {@code b}
+     * split at limb {@code m}.
+     *
+     * @param length
+     *            |a| + |b|
+     * @param m
+     *            the position of the split
+     * @param z0
+     *            the product of the low halves
+     * @param z1
+     *            the product of the sums of the halves
+     * @param z2
+     *            the product of the high halves
+     * @return the limbs of a * b, of length |a| + |b|
+     * @updates z1
+     */
+    private static int[] combine(int length, int m, int[] z0, int[] z1,
+            int[] z2) {
+        /*
+         * With a = a1 * B^m + a0 and b = b1 * B^m + b0, a * b = z2 * B^2m +
+         * (z1 - z2 - z0) * B^m + z0
+         */
+        subtractFrom(z1, z0);
+        subtractFrom(z1, z2);
+        int[] r = new int[length + 1];
+        addInto(r, 0, trimmed(z0));
+        addInto(r, 2 * m, trimmed(z2));
+        addInto(r, m, trimmed(z1));
+        return Arrays.copyOf(r, length);
+    }
+
+    /**
+     * Karatsuba multiplication whose subproducts are computed as fork-join
+     * tasks while the operands are at least {@code PARALLEL_THRESHOLD} limbs
+     * long.
+     */
+    private static final class KaratsubaTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serialization id.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first limbs.
+         */
+        private final int[] a;
+
+        /**
+         * The second limbs.
+         */
+        private final int[] b;
+
+        /**
+         * Constructor.
+         *
+         * @param a
+         *            the first limbs
+         * @param b
+         *            the second limbs
+         */
+        KaratsubaTask(int[] a, int[] b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected int[] compute() {
+            int[] r;
+            if (Math.min(this.a.length, this.b.length) < PARALLEL_THRESHOLD) {
+                r = multiplySequential(this.a, this.b);
+            } else {
+                int m = Math.max(this.a.length, this.b.length) / 2;
+                int[] a0 = slice(this.a, 0, m);
+                int[] a1 = slice(this.a, m, this.a.length);
+                int[] b0 = slice(this.b, 0, m);
+                int[] b1 = slice(this.b, m, this.b.length);
+                KaratsubaTask low = new KaratsubaTask(a0, b0);
+                KaratsubaTask high = new KaratsubaTask(a1, b1);
+                low.fork();
+                high.fork();
+                int[] z1 = new KaratsubaTask(sum(a0, a1), sum(b0, b1))
+                        .compute();
+                int[] z2 = high.join();
+                int[] z0 = low.join();
+                r = combine(this.a.length + this.b.length, m, z0, z1, z2);
+            }
+            return r;
+        }
+
+    }
+
+    /**
+     * Returns {@code base} raised to the power {@code e} modulo {@code p}.
+     *
+     * @param base
+     *            the base
+     * @param e
+     *            the exponent
+     * @param p
+     *            the modulus
+     * @return base^e mod p
+     * @requires 0 <= base < p  and  e >= 0
+     */
+    private static long powMod(long base, long e, long p) {
+        long result = 1;
+        long b = base;
+        long k = e;
+        while (k > 0) {
+            if ((k & 1) == 1) {
+                result = result * b % p;
+            }
+            b = b * b % p;
+            k >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Replaces {@code a} by its number-theoretic transform modulo {@code p},
+     * or by the inverse transform.
+     *
+     * @param a
+     *            the values, of length a power of 2
+     * @param p
+     *            the prime modulus
+     * @param invert
+     *            whether to apply the inverse transform
+     * @updates a
+     * @requires <pre>
+     * [|a| is a power of 2 dividing p - 1]  and
+     * [NTT_ROOT is a primitive root modulo p]  and
+     * [each entry of a is in [0, p)]
+     * </pre>
+     */
+    private static void ntt(long[] a, long p, boolean invert) {
+        int n = a.length;
+        // permute into bit-reversed order
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            while ((j & bit) != 0) {
+                j ^= bit;
+                bit >>= 1;
+            }
+            j ^= bit;
+            if (i < j) {
+                long t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        long[] roots = new long[n / 2];
+        for (int len = 2; len <= n; len <<= 1) {
+            long w = powMod(NTT_ROOT, (p - 1) / len, p);
+            if (invert) {
+                w = powMod(w, p - 2, p);
+            }
+            int half = len / 2;
+            roots[0] = 1;
+            for (int k = 1; k < half; k++) {
+                roots[k] = roots[k - 1] * w % p;
+            }
+            for (int i = 0; i < n; i += len) {
+                for (int k = 0; k < half; k++) {
+                    long u = a[i + k];
+                    long v = a[i + k + half] * roots[k] % p;
+                    a[i + k] = (u + v < p) ? u + v : u + v - p;
+                    a[i + k + half] = (u - v >= 0) ? u - v : u - v + p;
+                }
+            }
+        }
+        if (invert) {
+            long nInverse = powMod(n, p - 2, p);
+            for (int i = 0; i < n; i++) {
+                a[i] = a[i] * nInverse % p;
+            }
+        }
+    }
+
+    /**
+     * Computes the cyclic convolution of {@code a} and {@code b} modulo
+     * {@code p}, of length {@code n}, as a fork-join task.
+     */
+    private static final class ConvolutionTask extends RecursiveTask<long[]> {
+
+        /**
+         * Serialization id.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first limbs.
+         */
+        private final int[] a;
+
+        /**
+         * The second limbs.
+         */
+        private final int[] b;
+
+        /**
+         * Length of the transform.
+         */
+        private final int n;
+
+        /**
+         * The prime modulus.
+         */
+        private final long p;
+
+        /**
+         * Constructor.
+         *
+         * @param a
+         *            the first limbs
+         * @param b
+         *            the second limbs
+         * @param n
+         *            the length of the transform
+         * @param p
+         *            the prime modulus
+         */
+        ConvolutionTask(int[] a, int[] b, int n, long p) {
+            this.a = a;
+            this.b = b;
+            this.n = n;
+            this.p = p;
+        }
+
+        @Override
+        protected long[] compute() {
+            long[] fa = new long[this.n];
+            long[] fb = new long[this.n];
+            for (int i = 0; i < this.a.length; i++) {
+                fa[i] = this.a[i];
+            }
+            for (int i = 0; i < this.b.length; i++) {
+                fb[i] = this.b[i];
+            }
+            ntt(fa, this.p, false);
+            ntt(fb, this.p, false);
+            for (int i = 0; i < this.n; i++) {
+                fa[i] = fa[i] * fb[i] % this.p;
+            }
+            ntt(fa, this.p, true);
+            return fa;
+        }
+
+    }
+
+    /**
+     * Multiplies {@code a} by {@code b} by number-theoretic transforms modulo
+     * the two primes {@code NTT_PRIME_1} and {@code NTT_PRIME_2}, combining
+     * the two convolutions by the Chinese remainder theorem.
+     *
+     * @param a
+     *            the first limbs
+     * @param b
+     *            the second limbs
+     * @return the limbs of a * b, of length |a| + |b|
+     * @requires |a| + |b| <= NTT_MAX_LENGTH
+     */
+    private static int[] multiplyNtt(int[] a, int[] b) {
+        int length = a.length + b.length;
+        int n = Integer.highestOneBit(length);
+        if (n < length) {
+            n <<= 1;
+        }
+        // the two transforms are independent, so run them side by side
+        ConvolutionTask first = new ConvolutionTask(a, b, n, NTT_PRIME_1);
+        first.fork();
+        long[] c2 = new ConvolutionTask(a, b, n, NTT_PRIME_2).compute();
+        long[] c1 = first.join();
+        /*
+         * Each coefficient of the product is less than n * LIMB_BASE^2, which
+         * is below NTT_PRIME_1 * NTT_PRIME_2, so it is recovered exactly as
+         * c1 + NTT_PRIME_1 * ((c2 - c1) * NTT_PRIME_1^-1 mod NTT_PRIME_2)
+         */
+        long inverse = powMod(NTT_PRIME_1 % NTT_PRIME_2, NTT_PRIME_2 - 2,
+                NTT_PRIME_2);
+        int[] r = new int[length];
+        long carry = 0;
+        for (int i = 0; i < length; i++) {
+            long d = (c2[i] - c1[i] % NTT_PRIME_2 + NTT_PRIME_2) % NTT_PRIME_2;
+            long t = c1[i] + NTT_PRIME_1 * (d * inverse % NTT_PRIME_2)
+                    + carry;
+            r[i] = (int) (t % LIMB_BASE);
+            carry = t / LIMB_BASE;
+        }
+        return r;
+    }
+
+    /**
+     * Multiplies {@code a} by {@code b}, choosing the algorithm by the length
+     * of the shorter operand: the schoolbook method or Karatsuba's in the
+     * calling thread for short operands, Karatsuba's split across fork-join
+     * tasks for longer ones, and number-theoretic transforms for the longest.
+     *
+     * @param a
+     *            the first limbs
+     * @param b
+     *            the second limbs
+     * @return the limbs of a * b, of length |a| + |b|
+     */
+    private static int[] multiplyLimbs(int[] a, int[] b) {
+        int shorter = Math.min(a.length, b.length);
+        int[] r;
+        if ((shorter >= NTT_THRESHOLD)
+                && (a.length + b.length <= NTT_MAX_LENGTH)) {
+            r = multiplyNtt(a, b);
+        } else if (shorter >= PARALLEL_THRESHOLD) {
+            r = ForkJoinPool.commonPool().invoke(new KaratsubaTask(a, b));
+        } else {
+            r = multiplySequential(a, b);
+        }
+        return r;
+    }
+
+    /**
+     * Returns {@code a} without its leading zero limbs.
+     *
+     * @param a
+     *            the limbs
+     * @return the limbs of a, without leading zeros
+     */
+    private static int[] trimmed(int[] a) {
+        int len = a.length;
+        while ((len > 0) && (a[len - 1] == 0)) {
+            len--;
+        }
+        return Arrays.copyOf(a, len);
+    }
+
+    /**
+     * Compares {@code a} and {@code b}.
+     *
+     * @param a
+     *            the first limbs
+     * @param b
+     *            the second limbs
+     * @return negative, zero, or positive as a is less than, equal to, or
+     *         greater than b
+     * @requires [neither a nor b has leading zero limbs]
+     */
+    private static int compareLimbs(int[] a, int[] b) {
+        int result = Integer.compare(a.length, b.length);
+        int i = a.length - 1;
+        while ((result == 0) && (i >= 0)) {
+            result = Integer.compare(a[i], b[i]);
+            i--;
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code x - y}.
+     *
+     * @param x
+     *            the first limbs
+     * @param y
+     *            the second limbs
+     * @return the limbs of x - y, without leading zeros
+     * @requires x >= y
+     */
+    private static int[] difference(int[] x, int[] y) {
+        int[] r = Arrays.copyOf(x, x.length);
+        subtractFrom(r, y);
+        return trimmed(r);
+    }
+
+    /**
+     * Returns {@code a * LIMB_BASE^k}.
+     *
+     * @param a
+     *            the limbs
+     * @param k
+     *            the number of limbs to shift by
+     * @return the limbs of a * LIMB_BASE^k
+     * @requires k >= 0
+     */
+    private static int[] shiftUp(int[] a, int k) {
+        int[] r = new int[a.length + k];
+        System.arraycopy(a, 0, r, k, a.length);
+        return r;
+    }
 
+    /**
+     * Returns {@code LIMB_BASE^k}.
+     *
+     * @param k
+     *            the exponent
+     * @return the limbs of LIMB_BASE^k
+     * @requires k >= 0
+     */
+    private static int[] powerOfBase(int k) {
+        int[] r = new int[k + 1];
+        r[k] = 1;
+        return r;
+    }
+
+    /**
+     * Divides {@code a} by {@code d}, which fits in one limb.
+     *
+     * @param a
+     *            the dividend
+     * @param d
+     *            the divisor
+     * @return the quotient and the remainder, in that order, without leading
+     *         zeros
+     * @requires 0 < d < LIMB_BASE
+     */
+    private static int[][] divideShort(int[] a, int d) {
+        int[] q = new int[a.length];
+        int remainder = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            int t = remainder * LIMB_BASE + a[i];
+            q[i] = t / d;
+            remainder = t % d;
+        }
+        return new int[][] { trimmed(q), trimmed(new int[] { remainder }) };
+    }
+
+    /**
+     * Divides {@code u} by {@code v} by Knuth's Algorithm D.
+     *
+     * @param u
+     *            the dividend
+     * @param v
+     *            the divisor
+     * @return the quotient and the remainder, in that order, without leading
+     *         zeros
+     * @requires <pre>
+     * [neither u nor v has leading zero limbs]  and
+     * u >= v  and  |v| >= 2
+     * </pre>
+     */
+    private static int[][] divideKnuth(int[] u, int[] v) {
+        int n = v.length;
+        int m = u.length - n;
+        // normalize so that the top limb of the divisor is at least B / 2
+        int[] scale = { LIMB_BASE / (v[n - 1] + 1) };
+        int[] vn = multiplySchoolbook(v, scale);
+        int[] un = multiplySchoolbook(u, scale);
+        long vTop = vn[n - 1];
+        long vNext = vn[n - 2];
+        int[] q = new int[m + 1];
+        for (int j = m; j >= 0; j--) {
+            // estimate the quotient limb from the top two limbs, and correct
+            // the estimate using the third
+            long top = (long) un[j + n] * LIMB_BASE + un[j + n - 1];
+            long qhat = top / vTop;
+            long rhat = top % vTop;
+            while ((rhat < LIMB_BASE) && ((qhat >= LIMB_BASE)
+                    || (qhat * vNext > rhat * LIMB_BASE + un[j + n - 2]))) {
+                qhat--;
+                rhat += vTop;
+            }
+            // multiply and subtract
+            long borrow = 0;
+            for (int i = 0; i < n; i++) {
+                long t = un[i + j] - qhat * vn[i] - borrow;
+                borrow = 0;
+                if (t < 0) {
+                    borrow = (-t + LIMB_BASE - 1) / LIMB_BASE;
+                    t += borrow * LIMB_BASE;
+                }
+                un[i + j] = (int) t;
+            }
+            long t = un[j + n] - borrow;
+            if (t < 0) {
+                // the estimate was one too large, so add the divisor back
+                qhat--;
+                int carry = 0;
+                for (int i = 0; i < n; i++) {
+                    int s = un[i + j] + vn[i] + carry;
+                    carry = s / LIMB_BASE;
+                    un[i + j] = s % LIMB_BASE;
+                }
+                t += carry;
+            }
+            un[j + n] = (int) t;
+            q[j] = (int) qhat;
+        }
+        // undo the normalization of the remainder
+        int[] remainder = divideShort(Arrays.copyOf(un, n), scale[0])[0];
+        return new int[][] { trimmed(q), remainder };
+    }
+
+    /**
+     * Returns the top {@code p} limbs of {@code b} plus one, that is,
+     * floor(b * LIMB_BASE^(p - |b|)) + 1.
+     *
+     * @param b
+     *            the limbs
+     * @param p
+     *            the number of limbs to keep
+     * @return the limbs of floor(b * LIMB_BASE^(p - |b|)) + 1
+     * @requires p > 0
+     */
+    private static int[] topPlusOne(int[] b, int p) {
+        int[] top;
+        if (p <= b.length) {
+            top = slice(b, b.length - p, b.length);
+        } else {
+            top = shiftUp(b, p - b.length);
+        }
+        return trimmed(sum(top, new int[] { 1 }));
+    }
+
+    /**
+     * Returns an approximation from below of LIMB_BASE^(2p) / c, where c is
+     * the top {@code p} limbs of {@code b} plus one, computed by Newton's
+     * iteration with the precision doubling at each step.
+     *
+     * @param b
+     *            the divisor
+     * @param p
+     *            the precision, in limbs
+     * @return x such that x <= LIMB_BASE^(2p) / c, with relative error at
+     *         most about LIMB_BASE^(2 - p)
+     * @requires [b has no leading zero limbs]  and  p > 0
+     */
+    private static int[] reciprocal(int[] b, int p) {
+        int[] c = topPlusOne(b, p);
+        int[] x;
+        if (c.length == 1) {
+            x = divideShort(trimmed(powerOfBase(2 * p)), c[0])[0];
+        } else if (p <= NEWTON_BASE_PRECISION) {
+            x = divideKnuth(trimmed(powerOfBase(2 * p)), c)[0];
+        } else {
+            /*
+             * Scaling the reciprocal at (slightly more than) half precision
+             * keeps it below LIMB_BASE^(2p) / c, and so does the Newton step
+             * x + x * (LIMB_BASE^(2p) - c * x) / LIMB_BASE^(2p)
+             */
+            int h = p / 2 + 2;
+            int[] y = shiftUp(reciprocal(b, h), p - h);
+            int[] e = difference(trimmed(powerOfBase(2 * p)),
+                    trimmed(multiplyLimbs(c, y)));
+            int[] correction = slice(multiplyLimbs(y, e), 2 * p,
+                    y.length + e.length);
+            x = trimmed(sum(y, correction));
+        }
+        return x;
+    }
+
+    /**
+     * Divides {@code a} by {@code b} using a Newton-iteration reciprocal of
+     * {@code b}, taking |b| limbs of the quotient at a time.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the quotient and the remainder, in that order, without leading
+     *         zeros
+     * @requires [neither a nor b has leading zero limbs]  and  b > 0
+     */
+    private static int[][] divideNewton(int[] a, int[] b) {
+        int n = b.length;
+        // x is about LIMB_BASE^(n + p) / b; with three guard limbs each
+        // quotient block it gives is at most a few units too small
+        int p = n + 3;
+        int[] x = reciprocal(b, p);
+        int[] q = new int[a.length];
+        int[] r = new int[0];
+        for (int start = ((a.length - 1) / n) * n; start >= 0; start -= n) {
+            int[] block = trimmed(
+                    sum(shiftUp(r, n), slice(a, start, start + n)));
+            int[] qBlock = trimmed(slice(multiplyLimbs(block, x), n + p,
+                    block.length + x.length));
+            r = difference(block, trimmed(multiplyLimbs(qBlock, b)));
+            while (compareLimbs(r, b) >= 0) {
+                r = difference(r, b);
+                qBlock = trimmed(sum(qBlock, new int[] { 1 }));
+            }
+            System.arraycopy(qBlock, 0, q, start, qBlock.length);
+        }
+        return new int[][] { trimmed(q), r };
+    }
+
+    /**
+     * Divides {@code a} by {@code b}, choosing the algorithm by the lengths
+     * of the divisor and of the quotient.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the quotient and the remainder, in that order, without leading
+     *         zeros
+     * @requires [neither a nor b has leading zero limbs]  and  b > 0
+     */
+    private static int[][] divideLimbs(int[] a, int[] b) {
+        int[][] qr;
+        if (compareLimbs(a, b) < 0) {
+            qr = new int[][] { new int[0], a };
+        } else if (b.length == 1) {
+            qr = divideShort(a, b[0]);
+        } else if ((b.length >= NEWTON_THRESHOLD)
+                && (a.length - b.length >= NEWTON_THRESHOLD)) {
+            qr = divideNewton(a, b);
+        } else {
+            qr = divideKnuth(a, b);
+        }
+        return qr;
     }
 
     /*
@@ -56,13 +1020,7 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
     public NaturalNumber3(int i) {
         assert i >= 0 : "Violation of: i >= 0";
         this.createNewRep();
-        // check if incoming value is equal to zero
-        if (i == 0) {
-            //set representation to empty string
-            this.rep = "";
-        } else {
-            this.rep = "" + i;
-        }
+        this.appendDigits(Integer.toString(i));
 
     }
 
@@ -77,13 +1035,7 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         assert s.matches("0|[1-9]\\d*") : ""
                 + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
         this.createNewRep();
-        // check if incoming value is equal to zero
-        if (s.equals("0")) {
-            //set representation to empty string
-            this.rep = "";
-        } else {
-            this.rep = s;
-        }
+        this.appendDigits(s);
 
     }
 
@@ -96,14 +1048,7 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
     public NaturalNumber3(NaturalNumber n) {
         assert n != null : "Violation of: n is not null";
         this.createNewRep();
-        NaturalNumber n1 = n.newInstance();
-        // check if incoming value is equal to zero
-        if (n.equals(n1)) {
-            //set representation to empty string
-            this.rep = "";
-        } else {
-            this.rep = "" + n;
-        }
+        this.appendDigits(n.toString());
 
     }
 
@@ -131,13 +1076,14 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         assert source != null : "Violation of: source is not null";
         assert source != this : "Violation of: source is not this";
         assert source instanceof NaturalNumber3 : ""
-                + "Violation of: source is of dynamic type NaturalNumberExample";
+                + "Violation of: source is of dynamic type NaturalNumber3";
         /*
          * This cast cannot fail since the assert above would have stopped
          * execution in that case.
          */
         NaturalNumber3 localSource = (NaturalNumber3) source;
-        this.rep = localSource.rep;
+        this.digits = localSource.digits;
+        this.length = localSource.length;
         localSource.createNewRep();
     }
 
@@ -149,29 +1095,106 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
     public final void multiplyBy10(int k) {
         assert 0 <= k : "Violation of: 0 <= k";
         assert k < RADIX : "Violation of: k < 10";
-        // add element to end of string
-        this.rep += k;
+        // a leading zero is never stored, so 0 * 10 + 0 stays empty
+        if ((this.length > 0) || (k > 0)) {
+            // double the buffer when it is full
+            if (this.length == this.digits.length) {
+                this.digits = Arrays.copyOf(this.digits,
+                        2 * this.digits.length);
+            }
+            this.digits[this.length] = (byte) k;
+            this.length++;
+        }
     }
 
     @Override
     public final int divideBy10() {
-        // select value of end
-        String val = this.rep.substring(this.rep.length() - 1,
-                this.rep.length());
-        // save representation as string without end element
-        this.rep = this.rep.substring(0, this.rep.length() - 1);
-        // return string converted to integer
-        return Integer.valueOf(val);
+        int k = 0;
+        // remove the last digit, if any
+        if (this.length > 0) {
+            this.length--;
+            k = this.digits[this.length];
+        }
+        return k;
     }
 
     @Override
     public final boolean isZero() {
-        boolean isZero = true;
-        // check for empty string
-        if (this.rep.length() > 0) {
-            isZero = false;
+        return this.length == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.setFromLimbs(multiplyLimbs(toLimbs(this), toLimbs(n)));
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+        int[][] qr = divideLimbs(trimmed(toLimbs(this)), trimmed(toLimbs(n)));
+        NaturalNumber3 remainder = new NaturalNumber3();
+        remainder.setFromLimbs(qr[1]);
+        this.setFromLimbs(qr[0]);
+        return remainder;
+    }
+
+    @Override
+    public final void power(int p) {
+        assert p >= 0 : "Violation of: p >= 0";
+        // square the base for each bit of p, multiplying in the set bits
+        int[] base = trimmed(toLimbs(this));
+        int[] result = { 1 };
+        int k = p;
+        while (k > 0) {
+            if ((k & 1) == 1) {
+                result = trimmed(multiplyLimbs(result, base));
+            }
+            k >>= 1;
+            if (k > 0) {
+                base = trimmed(multiplyLimbs(base, base));
+            }
+        }
+        this.setFromLimbs(result);
+    }
+
+    @Override
+    public final void root(int r) {
+        assert r >= 2 : "Violation of: r >= 2";
+        if (!this.isZero()) {
+            /*
+             * Newton's iteration x = ((r - 1) * x + this / x^(r - 1)) / r,
+             * started above the root, decreases until it reaches the root
+             */
+            NaturalNumber3 x = new NaturalNumber3(1);
+            for (int i = 0; i < (this.length + r - 1) / r; i++) {
+                x.multiplyBy10(0);
+            }
+            NaturalNumber rMinusOne = new NaturalNumber3(r - 1);
+            NaturalNumber divisor = new NaturalNumber3(r);
+            boolean done = false;
+            while (!done) {
+                NaturalNumber3 y = new NaturalNumber3(x);
+                y.power(r - 1);
+                NaturalNumber3 next = new NaturalNumber3(this);
+                next.divide(y);
+                NaturalNumber3 t = new NaturalNumber3(x);
+                t.multiply(rMinusOne);
+                next.add(t);
+                next.divide(divisor);
+                if (next.compareTo(x) >= 0) {
+                    done = true;
+                } else {
+                    x.transferFrom(next);
+                }
+            }
+            this.transferFrom(x);
         }
-        return isZero;
     }
 
 }
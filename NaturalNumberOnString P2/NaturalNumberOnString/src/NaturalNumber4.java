@@ -0,0 +1,616 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as an array of base-10^9 "limbs", least
+ * significant first, with implementations of primary methods and of the
+ * arithmetic secondary methods working on the limbs directly.
+ *
+ * @convention <pre>
+ * [$this.limbs is not null]  and
+ * 0 <= $this.length <= |$this.limbs|  and
+ * [each of the first $this.length entries of $this.limbs is in
+ *  [0, BASE)]  and
+ * [if $this.length > 0 then the entry at position $this.length - 1 in
+ *  $this.limbs is not 0]  and
+ * [the entries at positions $this.length and beyond in $this.limbs are 0]
+ * </pre>
+ * @correspondence <pre>
+ * this = [sum of (entry at position i in $this.limbs) * BASE^i, for
+ *         0 <= i < $this.length]
+ * </pre>
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Base of the limbs.
+     */
+    private static final int BASE = 1_000_000_000;
+
+    /**
+     * Number of decimal digits in one limb.
+     */
+    private static final int DIGITS_PER_LIMB = 9;
+
+    /**
+     * Number of limbs in the array created for a new number.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Limbs of {@code this}, least significant first.
+     */
+    private int[] limbs;
+
+    /**
+     * Number of limbs in use.
+     */
+    private int length;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.limbs = new int[INITIAL_CAPACITY];
+        this.length = 0;
+    }
+
+    /**
+     * Makes sure {@code this.limbs} has room for {@code capacity} limbs.
+     *
+     * @param capacity
+     *            number of limbs needed
+     * @updates this.limbs
+     * @ensures <pre>
+     * |this.limbs| >= capacity  and
+     * [the first this.length entries of this.limbs are unchanged, and the
+     *  rest are 0]
+     * </pre>
+     */
+    private void ensureCapacity(int capacity) {
+        if (this.limbs.length < capacity) {
+            this.limbs = Arrays.copyOf(this.limbs,
+                    Math.max(capacity, 2 * this.limbs.length));
+        }
+    }
+
+    /**
+     * Sets {@code this.length} to exclude leading zero limbs.
+     *
+     * @updates this.length
+     * @ensures <pre>
+     * this.length <= #this.length  and
+     * [if this.length > 0 then the entry at position this.length - 1 in
+     *  this.limbs is not 0]  and
+     * [entries at positions this.length through #this.length - 1 in
+     *  this.limbs are 0]
+     * </pre>
+     */
+    private void trim() {
+        while ((this.length > 0) && (this.limbs[this.length - 1] == 0)) {
+            this.length--;
+        }
+    }
+
+    /**
+     * Sets {@code this} to the number held in the first {@code length} limbs
+     * of {@code a}, which it takes over.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param length
+     *            the number of limbs of a in use
+     * @replaces this
+     * @requires <pre>
+     * 0 <= length <= |a|  and
+     * [each entry of a is in [0, BASE)]
+     * </pre>
+     * @ensures this = [the number held in the first length limbs of a]
+     */
+    private void setLimbs(int[] a, int length) {
+        this.limbs = a;
+        this.length = length;
+        Arrays.fill(this.limbs, length, this.limbs.length, 0);
+        this.trim();
+    }
+
+    /**
+     * Returns {@code n} as a {@code NaturalNumber4}: {@code n} itself if it is
+     * one, and a new copy otherwise.
+     *
+     * @param n
+     *            the number
+     * @return a {@code NaturalNumber4} equal to {@code n}
+     * @ensures asLimbs = n
+     */
+    private static NaturalNumber4 asLimbs(NaturalNumber n) {
+        NaturalNumber4 result;
+        if (n instanceof NaturalNumber4) {
+            result = (NaturalNumber4) n;
+        } else {
+            result = new NaturalNumber4(n);
+        }
+        return result;
+    }
+
+    /**
+     * Compares the numbers held in the first {@code aLength} limbs of
+     * {@code a} and the first {@code bLength} limbs of {@code b}.
+     *
+     * @param a
+     *            the first limbs
+     * @param aLength
+     *            number of limbs of a in use
+     * @param b
+     *            the second limbs
+     * @param bLength
+     *            number of limbs of b in use
+     * @return negative, zero, or positive as the first number is less than,
+     *         equal to, or greater than the second
+     * @requires [neither number has leading zero limbs]
+     */
+    private static int compareLimbs(int[] a, int aLength, int[] b,
+            int bLength) {
+        int result = Integer.compare(aLength, bLength);
+        int i = aLength - 1;
+        while ((result == 0) && (i >= 0)) {
+            result = Integer.compare(a[i], b[i]);
+            i--;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies the first {@code aLength} limbs of {@code a} by those of
+     * {@code b}, by the schoolbook method.
+     *
+     * @param a
+     *            the first limbs
+     * @param aLength
+     *            number of limbs of a in use
+     * @param b
+     *            the second limbs
+     * @param bLength
+     *            number of limbs of b in use
+     * @return the limbs of the product, of length aLength + bLength
+     */
+    private static int[] multiplyLimbs(int[] a, int aLength, int[] b,
+            int bLength) {
+        int[] product = new int[aLength + bLength];
+        for (int i = 0; i < aLength; i++) {
+            long carry = 0;
+            long ai = a[i];
+            for (int j = 0; j < bLength; j++) {
+                long t = product[i + j] + ai * b[j] + carry;
+                product[i + j] = (int) (t % BASE);
+                carry = t / BASE;
+            }
+            product[i + bLength] = (int) carry;
+        }
+        return product;
+    }
+
+    /**
+     * Divides the first {@code length} limbs of {@code a} in place by
+     * {@code d}, and returns the remainder.
+     *
+     * @param a
+     *            the limbs of the dividend, replaced by those of the quotient
+     * @param length
+     *            number of limbs of a in use
+     * @param d
+     *            the divisor
+     * @return the remainder
+     * @updates a
+     * @requires 0 < d < BASE
+     */
+    private static int divideLimbs(int[] a, int length, int d) {
+        long remainder = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            long t = remainder * BASE + a[i];
+            a[i] = (int) (t / d);
+            remainder = t % d;
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Divides {@code u} by {@code v}, both of at least two limbs, by Knuth's
+     * Algorithm D, and returns the quotient and remainder.
+     *
+     * @param u
+     *            the dividend
+     * @param v
+     *            the divisor
+     * @return the quotient and the remainder, in that order
+     * @requires u >= v  and  v.length >= 2
+     */
+    private static NaturalNumber4[] divideLong(NaturalNumber4 u,
+            NaturalNumber4 v) {
+        int n = v.length;
+        int m = u.length - n;
+        //Normalize so that the top limb of the divisor is at least BASE / 2
+        int scale = (int) (BASE / ((long) v.limbs[n - 1] + 1));
+        int[] vn = multiplyLimbs(v.limbs, n, new int[] { scale }, 1);
+        int[] un = multiplyLimbs(u.limbs, u.length, new int[] { scale }, 1);
+        long vTop = vn[n - 1];
+        long vNext = vn[n - 2];
+        int[] q = new int[m + 1];
+        for (int j = m; j >= 0; j--) {
+            //Estimate the next quotient limb from the top two limbs, and
+            //correct the estimate using the third
+            long top = (long) un[j + n] * BASE + un[j + n - 1];
+            long qhat = top / vTop;
+            long rhat = top % vTop;
+            while ((qhat >= BASE)
+                    || (qhat * vNext > rhat * BASE + un[j + n - 2])) {
+                qhat--;
+                rhat += vTop;
+                if (rhat >= BASE) {
+                    break;
+                }
+            }
+            //Multiply and subtract
+            long borrow = 0;
+            long carry = 0;
+            for (int i = 0; i < n; i++) {
+                long p = qhat * vn[i] + carry;
+                carry = p / BASE;
+                long t = un[i + j] - (p % BASE) - borrow;
+                if (t < 0) {
+                    t += BASE;
+                    borrow = 1;
+                } else {
+                    borrow = 0;
+                }
+                un[i + j] = (int) t;
+            }
+            long t = un[j + n] - carry - borrow;
+            if (t < 0) {
+                //The estimate was one too large: add the divisor back
+                un[j + n] = (int) (t + BASE);
+                qhat--;
+                long c = 0;
+                for (int i = 0; i < n; i++) {
+                    long s = (long) un[i + j] + vn[i] + c;
+                    un[i + j] = (int) (s % BASE);
+                    c = s / BASE;
+                }
+                un[j + n] = (int) ((un[j + n] + c) % BASE);
+            } else {
+                un[j + n] = (int) t;
+            }
+            q[j] = (int) qhat;
+        }
+        //Unnormalize the remainder
+        divideLimbs(un, n, scale);
+        NaturalNumber4 quotient = new NaturalNumber4();
+        quotient.setLimbs(q, m + 1);
+        NaturalNumber4 remainder = new NaturalNumber4();
+        remainder.setLimbs(Arrays.copyOf(un, Math.max(n, INITIAL_CAPACITY)),
+                n);
+        return new NaturalNumber4[] { quotient, remainder };
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.createNewRep();
+        this.setFromInt(i);
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.createNewRep();
+        this.setFromString(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.createNewRep();
+        this.copyFrom(n);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.limbs = localSource.limbs;
+        this.length = localSource.length;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+        //Multiply each limb by 10, carrying into the next, starting with k
+        long carry = k;
+        for (int i = 0; i < this.length; i++) {
+            long t = this.limbs[i] * (long) RADIX + carry;
+            this.limbs[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        if (carry > 0) {
+            this.ensureCapacity(this.length + 1);
+            this.limbs[this.length] = (int) carry;
+            this.length++;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+        int remainder = divideLimbs(this.limbs, this.length, RADIX);
+        this.trim();
+        return remainder;
+    }
+
+    @Override
+    public final boolean isZero() {
+        return this.length == 0;
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.ensureCapacity(2);
+        //Clear the old limbs, which add and increment rely on being 0
+        Arrays.fill(this.limbs, 0, this.length, 0);
+        this.limbs[0] = i % BASE;
+        this.limbs[1] = i / BASE;
+        this.length = 2;
+        this.trim();
+    }
+
+    @Override
+    public final boolean canConvertToInt() {
+        return (this.length <= 1) || ((this.length == 2)
+                && ((long) this.limbs[1] * BASE + this.limbs[0]
+                        <= Integer.MAX_VALUE));
+    }
+
+    @Override
+    public final int toInt() {
+        assert this.canConvertToInt() : ""
+                + "Violation of: this <= Integer.MAX_VALUE";
+        int result = 0;
+        if (this.length == 2) {
+            result = this.limbs[1] * BASE + this.limbs[0];
+        } else if (this.length == 1) {
+            result = this.limbs[0];
+        }
+        return result;
+    }
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert this.canSetFromString(s) : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        int count = (s.length() + DIGITS_PER_LIMB - 1) / DIGITS_PER_LIMB;
+        int[] a = new int[Math.max(count, INITIAL_CAPACITY)];
+        //Parse nine digits per limb, starting from the end of s
+        int end = s.length();
+        for (int i = 0; i < count; i++) {
+            int start = Math.max(0, end - DIGITS_PER_LIMB);
+            a[i] = Integer.parseInt(s.substring(start, end));
+            end = start;
+        }
+        this.setLimbs(a, count);
+    }
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 m = (NaturalNumber4) n;
+            this.setLimbs(Arrays.copyOf(m.limbs,
+                    Math.max(m.length, INITIAL_CAPACITY)), m.length);
+        } else {
+            this.setFromString(n.toString());
+        }
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        NaturalNumber4 m = asLimbs(n);
+        return compareLimbs(this.limbs, this.length, m.limbs, m.length);
+    }
+
+    @Override
+    public final void increment() {
+        int i = 0;
+        while ((i < this.length) && (this.limbs[i] == BASE - 1)) {
+            this.limbs[i] = 0;
+            i++;
+        }
+        if (i == this.length) {
+            this.ensureCapacity(this.length + 1);
+            this.length++;
+        }
+        this.limbs[i]++;
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+        int i = 0;
+        while (this.limbs[i] == 0) {
+            this.limbs[i] = BASE - 1;
+            i++;
+        }
+        this.limbs[i]--;
+        this.trim();
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        NaturalNumber4 m = asLimbs(n);
+        int mLength = m.length;
+        int[] mLimbs = m.limbs;
+        int longer = Math.max(this.length, mLength);
+        this.ensureCapacity(longer + 1);
+        int carry = 0;
+        for (int i = 0; i < longer; i++) {
+            int t = this.limbs[i] + carry;
+            if (i < mLength) {
+                t += mLimbs[i];
+            }
+            if (t >= BASE) {
+                t -= BASE;
+                carry = 1;
+            } else {
+                carry = 0;
+            }
+            this.limbs[i] = t;
+        }
+        this.limbs[longer] = carry;
+        this.length = longer + 1;
+        this.trim();
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        NaturalNumber4 m = asLimbs(n);
+        assert this.compareTo(m) >= 0 : "Violation of: this >= n";
+        int borrow = 0;
+        for (int i = 0; i < this.length; i++) {
+            int t = this.limbs[i] - borrow;
+            if (i < m.length) {
+                t -= m.limbs[i];
+            }
+            if (t < 0) {
+                t += BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            this.limbs[i] = t;
+        }
+        this.trim();
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        NaturalNumber4 m = asLimbs(n);
+        int[] product = multiplyLimbs(this.limbs, this.length, m.limbs,
+                m.length);
+        this.setLimbs(product, product.length);
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        NaturalNumber4 m = asLimbs(n);
+        assert !m.isZero() : "Violation of: n > 0";
+        NaturalNumber4 remainder = new NaturalNumber4();
+        if (compareLimbs(this.limbs, this.length, m.limbs, m.length) < 0) {
+            //The quotient is 0 and the remainder is all of this
+            remainder.transferFrom(this);
+        } else if (m.length == 1) {
+            remainder.setFromInt(
+                    divideLimbs(this.limbs, this.length, m.limbs[0]));
+            this.trim();
+        } else {
+            NaturalNumber4[] qr = divideLong(this, m);
+            this.transferFrom(qr[0]);
+            remainder.transferFrom(qr[1]);
+        }
+        NaturalNumber result = this.newInstance();
+        result.copyFrom(remainder);
+        return result;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (this.length == 0) {
+            sb.append('0');
+        } else {
+            sb.append(this.limbs[this.length - 1]);
+            for (int i = this.length - 2; i >= 0; i--) {
+                String limb = Integer.toString(this.limbs[i]);
+                for (int j = limb.length(); j < DIGITS_PER_LIMB; j++) {
+                    sb.append('0');
+                }
+                sb.append(limb);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -1,3 +1,7 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
 import components.naturalnumber.NaturalNumber;
 import components.naturalnumber.NaturalNumber1L;
 
@@ -48,4 +52,295 @@ public class NaturalNumber3Test extends NaturalNumberTest {
         return new NaturalNumber1L(n);
     }
 
+    /**
+     * Returns a string of {@code count} digits cycling through "123456789".
+     *
+     * @param count
+     *            the number of digits
+     * @return the digits
+     */
+    private static String digits(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append((char) ('1' + i % 9));
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Test cases for multiply
+     */
+
+    @Test
+    public final void testMultiplySmall() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(12345);
+        NaturalNumber m = this.constructorTest(6789);
+        NaturalNumber nExpected = this.constructorRef(83810205);
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testMultiplyByZero() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(500));
+        NaturalNumber m = this.constructorTest(0);
+        NaturalNumber nExpected = this.constructorRef(0);
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(true, n.isZero());
+    }
+
+    @Test
+    public final void testMultiplyLarge() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(1000));
+        NaturalNumber m = this.constructorTest(digits(700));
+        NaturalNumber nExpected = this.constructorRef(digits(1000));
+        NaturalNumber mExpected = this.constructorRef(digits(700));
+        nExpected.multiply(mExpected);
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testMultiplyUnbalanced() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(2000));
+        NaturalNumber m = this.constructorRef(digits(170));
+        NaturalNumber nExpected = this.constructorRef(digits(2000));
+        nExpected.multiply(m);
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testMultiplyParallel() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(6000));
+        NaturalNumber m = this.constructorTest(digits(5000));
+        NaturalNumber nExpected = this.constructorRef(digits(6000));
+        nExpected.multiply(this.constructorRef(digits(5000)));
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testMultiplyTransform() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(20000));
+        NaturalNumber m = this.constructorTest(digits(18000));
+        NaturalNumber nExpected = this.constructorRef(digits(20000));
+        nExpected.multiply(this.constructorRef(digits(18000)));
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    /*
+     * Test cases for divide, power, and root
+     */
+
+    @Test
+    public final void testDivideSmall() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(83810211);
+        NaturalNumber m = this.constructorTest(6789);
+        NaturalNumber nExpected = this.constructorRef(12345);
+        NaturalNumber rExpected = this.constructorRef(6);
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testDivideBySmaller() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(1234);
+        NaturalNumber m = this.constructorTest(digits(30));
+        NaturalNumber nExpected = this.constructorRef(0);
+        NaturalNumber rExpected = this.constructorRef(1234);
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testDivideLarge() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(1000));
+        NaturalNumber m = this.constructorTest(digits(400));
+        NaturalNumber nExpected = this.constructorRef(digits(1000));
+        NaturalNumber rExpected = nExpected
+                .divide(this.constructorRef(digits(400)));
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testDivideNewton() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(20000));
+        NaturalNumber m = this.constructorTest(digits(8000));
+        NaturalNumber nExpected = this.constructorRef(digits(20000));
+        NaturalNumber rExpected = nExpected
+                .divide(this.constructorRef(digits(8000)));
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testPower() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(20));
+        NaturalNumber nExpected = this.constructorRef(digits(20));
+        nExpected.power(37);
+        /*
+         * Call method under test
+         */
+        n.power(37);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testPowerZero() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(0);
+        NaturalNumber nExpected = this.constructorRef(1);
+        /*
+         * Call method under test
+         */
+        n.power(0);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testRootSquare() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(201));
+        NaturalNumber nExpected = this.constructorRef(digits(201));
+        nExpected.root(2);
+        /*
+         * Call method under test
+         */
+        n.root(2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testRootExactCube() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(digits(50));
+        n.power(3);
+        NaturalNumber nExpected = this.constructorRef(digits(50));
+        /*
+         * Call method under test
+         */
+        n.root(3);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
 }
@@ -0,0 +1,244 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber4}.
+ */
+public class NaturalNumber4Test extends NaturalNumberTest {
+
+    // constructors objects for test kernals
+    @Override
+    protected final NaturalNumber constructorTest() {
+        return new NaturalNumber4();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+        return new NaturalNumber4(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+        return new NaturalNumber4(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+        return new NaturalNumber4(n);
+    }
+
+    // constructors for ref kernals
+    @Override
+    protected final NaturalNumber constructorRef() {
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+        return new NaturalNumber1L(n);
+    }
+
+    /*
+     * Test cases for arithmetic across limb boundaries
+     */
+
+    @Test
+    public final void testAddCarryAcrossLimbs() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("999999999999999999");
+        NaturalNumber m = this.constructorTest(1);
+        NaturalNumber nExpected = this.constructorRef("1000000000000000000");
+        /*
+         * Call method under test
+         */
+        n.add(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testSetFromIntThenAddAcrossLimbs() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("123456789123456789123456789");
+        NaturalNumber m = this.constructorTest("1000000000000000000000");
+        NaturalNumber nExpected = this.constructorRef("1000000000000000000001");
+        /*
+         * Call method under test
+         */
+        n.setFromInt(1);
+        n.add(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testSubtractBorrowAcrossLimbs() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("1000000000000000000");
+        NaturalNumber m = this.constructorRef(1);
+        NaturalNumber nExpected = this.constructorRef("999999999999999999");
+        /*
+         * Call method under test
+         */
+        n.subtract(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testIncrementDecrement() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("999999999");
+        NaturalNumber nExpected = this.constructorRef("1000000000");
+        NaturalNumber zeroExpected = this.constructorRef();
+        NaturalNumber z = this.constructorTest(1);
+        /*
+         * Call method under test
+         */
+        n.increment();
+        z.decrement();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(zeroExpected, z);
+    }
+
+    @Test
+    public final void testMultiplyLarge() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this
+                .constructorTest("123456789012345678901234567890");
+        NaturalNumber m = this
+                .constructorTest("987654321098765432109876543210");
+        NaturalNumber nExpected = this.constructorRef(
+                "121932631137021795226185032733622923332237463801111263526900");
+        /*
+         * Call method under test
+         */
+        n.multiply(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public final void testDivideSingleLimb() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this
+                .constructorTest("123456789012345678901234567890");
+        NaturalNumber m = this.constructorTest(7);
+        NaturalNumber nExpected = this.constructorRef(
+                "17636684144620811271604938270");
+        NaturalNumber rExpected = this.constructorRef(0);
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testDivideLong() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(
+                "121932631137021795226185032733622923332237463801111263526907");
+        NaturalNumber m = this
+                .constructorTest("987654321098765432109876543210");
+        NaturalNumber nExpected = this.constructorRef(
+                "123456789012345678901234567890");
+        NaturalNumber rExpected = this.constructorRef(7);
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testDivideSmallerDividend() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest("12345");
+        NaturalNumber m = this.constructorTest("1000000000000");
+        NaturalNumber nExpected = this.constructorRef();
+        NaturalNumber rExpected = this.constructorRef(12345);
+        /*
+         * Call method under test
+         */
+        NaturalNumber r = n.divide(m);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    @Test
+    public final void testCompareToAndToInt() {
+        /*
+         * Set up variables
+         */
+        NaturalNumber n = this.constructorTest(Integer.MAX_VALUE);
+        NaturalNumber m = this.constructorRef("2147483648");
+        /*
+         * Call method under test
+         */
+        int c = n.compareTo(m);
+        boolean canConvert = n.canConvertToInt();
+        n.increment();
+        boolean cannotConvert = n.canConvertToInt();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(-1, Integer.signum(c));
+        assertEquals(true, canConvert);
+        assertEquals(false, cannotConvert);
+        assertEquals(0, n.compareTo(m));
+    }
+
+}
@@ -235,6 +235,22 @@ public abstract class NaturalNumberTest {
         assertEquals(nExpected, n);
     }
 
+    @Test
+    public final void testMultiplyBy10ZeroStartingWithZero() {
+        /*
+         * Set up variables and call method under test
+         */
+        NaturalNumber n = this.constructorTest(0);
+        NaturalNumber nExpected = this.constructorRef(0);
+
+        n.multiplyBy10(0);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(nExpected, n);
+        assertEquals(true, n.isZero());
+    }
+
     @Test
     public final void testMultiplyBy10StartingWithNonZero() {
         /*
@@ -1,16 +1,60 @@
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
-import components.queue.Queue;
-import components.queue.Queue1L;
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachineSecondary;
 
 /**
- * {@code SortingMachine} represented as a {@code Queue} and an array (using an
- * embedding of heap sort), with implementations of primary methods.
+ * {@code SortingMachine} represented as an array (using an embedding of heap
+ * sort), with implementations of primary methods.
+ *
+ * <p>
+ * While in insertion mode, entries are appended to a growable array;
+ * {@code changeToExtractionMode} then turns that same array into a heap in
+ * place, so no entry is copied or wrapped in a node along the way.
+ * </p>
+ *
+ * <p>
+ * A machine may be given a capacity k, in which case it keeps only the first k
+ * entries (according to its order) of everything added to it. While in
+ * insertion mode such a machine keeps its entries in a heap ordered by the
+ * reverse of its order, so the root is always the entry to discard next; this
+ * makes {@code add} O(log k) and bounds memory by O(k) no matter how many
+ * entries are added.
+ * </p>
+ *
+ * <p>
+ * A machine may also be given an {@code ExtractionStrategy}. With
+ * {@code PARALLEL_SORT}, {@code changeToExtractionMode} sorts the entries with
+ * a parallel merge sort (on the common {@code ForkJoinPool}) instead of
+ * building a heap, and {@code removeFirst} simply hands out the sorted entries
+ * from a cursor in O(1). This is worthwhile for machines holding very many
+ * entries, where the single-threaded heap construction dominates.
+ * </p>
+ *
+ * <p>
+ * With {@code INCREMENTAL_QUICKSORT}, {@code changeToExtractionMode} does no
+ * work at all; instead each {@code removeFirst} partitions (quicksort-style)
+ * only the block of entries that holds the next entry to remove, keeping the
+ * ends of the blocks still to be partitioned on a stack. The first
+ * {@code removeFirst} takes O(n) expected time and each later one O(log n)
+ * amortized, so a caller that removes only the first few entries never pays
+ * for sorting the rest.
+ * </p>
+ *
+ * <p>
+ * Calling {@code enableMetrics} makes a machine count the comparisons,
+ * exchanges, and sift levels its work costs, and time its insertion, change
+ * of mode, and extraction phases; see {@code Metrics}. Comparisons are counted
+ * by wrapping the order only while metrics are enabled, so a machine without
+ * metrics runs exactly as before.
+ * </p>
  *
  * @param <T>
  *            type of {@code SortingMachine} entries
@@ -24,41 +68,88 @@ import components.sortingmachine.SortingMachineSecondary;
  *
  * SUBTREE_IS_HEAP (
  *   a: string of T,
+ *   d: integer,
  *   start: integer,
  *   stop: integer,
  *   r: binary relation on T
  *  ) : boolean is
- *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
- *   at index start and only through entry stop of a satisfies the heap
- *   ordering property according to the relation r]
+ *  [the subtree of a (when a is interpreted as a complete d-ary tree, where
+ *   the children of index i are at indices d * i + 1 through d * i + d)
+ *   rooted at index start and only through entry stop of a satisfies the
+ *   heap ordering property according to the relation r]
  *
  * SUBTREE_ARRAY_ENTRIES (
  *   a: string of T,
+ *   d: integer,
  *   start: integer,
  *   stop: integer
  *  ) : finite multiset of T is
  *  [the multiset of entries in a that belong to the subtree of a
- *   (when a is interpreted as a complete binary tree) rooted at
+ *   (when a is interpreted as a complete d-ary tree) rooted at
  *   index start and only through entry stop]
  * </pre>
  * @convention <pre>
  * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
- * if $this.insertionMode then
- *   $this.heapSize = 0
- * else
- *   $this.entries = <>  and
+ * $this.capacity > 0  and
+ * $this.strategy is not null  and
+ * $this.arity >= 2  and
+ * if $this.insertionMode then $this.firstIndex = 0  and
+ * $this.reverseOrder = [reverse of $this.machineOrder]  and
+ * [$this.sortOrder and $this.reverseSortOrder compute the same relations as
+ *  $this.machineOrder and $this.reverseOrder, and also count comparisons in
+ *  $this.metrics if it is not null]  and
+ * if $this.insertionMode  and  $this.capacity = UNBOUNDED then
  *   for all i: integer
- *       where (0 <= i  and  i < |$this.heap|)
+ *       where (0 <= i  and  i < $this.heapSize)
  *     ([entry at position i in $this.heap is not null])  and
- *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+ *   0 <= $this.heapSize <= |$this.heap|
+ * else if $this.insertionMode then
+ *   for all i: integer
+ *       where (0 <= i  and  i < $this.heapSize)
+ *     ([entry at position i in $this.heap is not null])  and
+ *   SUBTREE_IS_HEAP($this.heap, $this.arity, 0, $this.heapSize - 1,
+ *     [relation computed by $this.reverseOrder.compare method])  and
+ *   0 <= $this.heapSize <= min(|$this.heap|, $this.capacity)
+ * else if $this.strategy = HEAPSORT then
+ *   $this.firstIndex = 0  and
+ *   for all i: integer
+ *       where (0 <= i  and  i < $this.heapSize)
+ *     ([entry at position i in $this.heap is not null])  and
+ *   SUBTREE_IS_HEAP($this.heap, $this.arity, 0, $this.heapSize - 1,
  *     [relation computed by $this.machineOrder.compare method])  and
  *   0 <= $this.heapSize <= |$this.heap|
+ * else
+ *   0 <= $this.firstIndex  and  0 <= $this.heapSize  and
+ *   $this.firstIndex + $this.heapSize <= |$this.heap|  and
+ *   for all i: integer
+ *       where ($this.firstIndex <= i  and
+ *              i < $this.firstIndex + $this.heapSize)
+ *     ([entry at position i in $this.heap is not null])  and
+ *   if $this.strategy = PARALLEL_SORT then
+ *     [entries in $this.heap[$this.firstIndex,
+ *       $this.firstIndex + $this.heapSize) are in non-decreasing order
+ *       according to the relation computed by $this.machineOrder.compare method]
+ *   else
+ *     $this.firstIndex <= $this.sortedEnd <=
+ *       $this.firstIndex + $this.heapSize  and
+ *     [entries in $this.heap[$this.firstIndex, $this.sortedEnd) are in
+ *       non-decreasing order according to the relation computed by
+ *       $this.machineOrder.compare method]  and
+ *     [entries in $this.blockEnds[0, $this.blockCount) are in decreasing
+ *       order, and each is at least $this.sortedEnd and at most
+ *       $this.firstIndex + $this.heapSize]  and
+ *     for all b: integer
+ *         where (b = $this.sortedEnd  or
+ *                b is in entries($this.blockEnds[0, $this.blockCount)))
+ *       ([every entry in $this.heap[$this.firstIndex, b) comes before or
+ *         is equal to every entry in $this.heap[b,
+ *         $this.firstIndex + $this.heapSize) according to the relation
+ *         computed by $this.machineOrder.compare method])
  * </pre>
  * @correspondence <pre>
- * if $this.insertionMode then
- *   this = (true, $this.machineOrder, multiset_entries($this.entries))
- * else
- *   this = (false, $this.machineOrder, multiset_entries($this.heap[0, $this.heapSize)))
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[$this.firstIndex,
+ *                                     $this.firstIndex + $this.heapSize)))
  * </pre>
  *
  * @author Roshan Varma & Quantez Merchant
@@ -70,23 +161,83 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * Private members --------------------------------------------------------
      */
 
+    /**
+     * Capacity of a machine that keeps every entry added to it.
+     */
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * Initial length of the heap.
+     */
+    private static final int INITIAL_HEAP_LENGTH = 16;
+
+    /**
+     * Default number of children of each node in the heap.
+     */
+    private static final int DEFAULT_ARITY = 4;
+
+    /**
+     * Length of a block of entries below which incremental quicksort sorts
+     * the whole block by insertion sort instead of partitioning it.
+     */
+    private static final int INSERTION_SORT_LENGTH = 16;
+
+    /**
+     * Initial length of the stack of block ends.
+     */
+    private static final int INITIAL_BLOCK_STACK_LENGTH = 16;
+
     /**
      * Order.
      */
     private Comparator<T> machineOrder;
 
     /**
-     * Insertion mode.
+     * Reverse of the order, used for the heap of a machine with a capacity
+     * while in insertion mode.
      */
-    private boolean insertionMode;
+    private Comparator<T> reverseOrder;
+
+    /**
+     * Order used by the kernel methods: {@code machineOrder} itself, or a
+     * wrapper counting its comparisons when metrics are enabled.
+     */
+    private Comparator<T> sortOrder;
+
+    /**
+     * Reverse order used by the kernel methods, like {@code sortOrder}.
+     */
+    private Comparator<T> reverseSortOrder;
 
     /**
-     * Entries.
+     * Metrics gathered, or null if metrics are not enabled.
      */
-    private Queue<T> entries;
+    private Metrics metrics;
 
     /**
-     * Heap.
+     * Maximum number of entries kept.
+     */
+    private int capacity;
+
+    /**
+     * How entries are put in order when changing to extraction mode.
+     */
+    private ExtractionStrategy strategy;
+
+    /**
+     * Number of children of each node in the heap.
+     */
+    private int arity;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Heap; or entries in the order they were added, in insertion mode
+     * without a capacity; or sorted entries, in extraction mode with
+     * {@code PARALLEL_SORT}.
      */
     private T[] heap;
 
@@ -95,6 +246,167 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      */
     private int heapSize;
 
+    /**
+     * Index of the first entry in extraction mode with {@code PARALLEL_SORT}
+     * or {@code INCREMENTAL_QUICKSORT}.
+     */
+    private int firstIndex;
+
+    /**
+     * Ends of the blocks of entries still to be partitioned, in extraction
+     * mode with {@code INCREMENTAL_QUICKSORT}; the end of the block holding
+     * the next entries to remove is on top.
+     */
+    private int[] blockEnds;
+
+    /**
+     * Number of block ends on the stack.
+     */
+    private int blockCount;
+
+    /**
+     * End of the entries already in their final position, in extraction mode
+     * with {@code INCREMENTAL_QUICKSORT}.
+     */
+    private int sortedEnd;
+
+    /**
+     * Ways of putting the entries in order when changing to extraction mode.
+     */
+    public enum ExtractionStrategy {
+
+        /**
+         * Build a heap; each {@code removeFirst} then takes O(log n).
+         */
+        HEAPSORT,
+
+        /**
+         * Sort in parallel; each {@code removeFirst} then takes O(1).
+         */
+        PARALLEL_SORT,
+
+        /**
+         * Partition lazily, only as far as the entries actually removed; the
+         * first {@code removeFirst} then takes O(n) and each later one O(log n)
+         * amortized.
+         */
+        INCREMENTAL_QUICKSORT
+
+    }
+
+    /**
+     * Counters and timings gathered by a machine with metrics enabled.
+     * Comparisons made by {@code PARALLEL_SORT} are counted, but its
+     * exchanges are not. With assertion checking enabled, the comparisons made
+     * while checking assertions are counted too.
+     */
+    public static final class Metrics {
+
+        /**
+         * Number of comparisons; an adder because {@code PARALLEL_SORT}
+         * compares from several threads.
+         */
+        private final LongAdder comparisons = new LongAdder();
+
+        /**
+         * Number of exchanges of entries (or, in insertion sort, moves of an
+         * entry by one position).
+         */
+        private long exchanges;
+
+        /**
+         * Number of levels entries were sifted up or down a heap.
+         */
+        private long siftLevels;
+
+        /**
+         * Time spent in {@code add}, in nanoseconds.
+         */
+        private long insertionNanos;
+
+        /**
+         * Time spent in {@code changeToExtractionMode}, in nanoseconds.
+         */
+        private long changeToExtractionModeNanos;
+
+        /**
+         * Time spent removing entries, in nanoseconds.
+         */
+        private long extractionNanos;
+
+        /**
+         * No-argument constructor.
+         */
+        private Metrics() {
+        }
+
+        /**
+         * Reports the number of comparisons made.
+         *
+         * @return the number of comparisons
+         */
+        public long comparisons() {
+            return this.comparisons.sum();
+        }
+
+        /**
+         * Reports the number of exchanges of entries made.
+         *
+         * @return the number of exchanges
+         */
+        public long exchanges() {
+            return this.exchanges;
+        }
+
+        /**
+         * Reports the number of levels entries were sifted up or down a heap.
+         *
+         * @return the number of sift levels
+         */
+        public long siftLevels() {
+            return this.siftLevels;
+        }
+
+        /**
+         * Reports the time spent in {@code add}.
+         *
+         * @return the time in nanoseconds
+         */
+        public long insertionNanos() {
+            return this.insertionNanos;
+        }
+
+        /**
+         * Reports the time spent in {@code changeToExtractionMode}.
+         *
+         * @return the time in nanoseconds
+         */
+        public long changeToExtractionModeNanos() {
+            return this.changeToExtractionModeNanos;
+        }
+
+        /**
+         * Reports the time spent in {@code removeFirst}, the batch
+         * {@code removeFirst}, and {@code drainSorted}.
+         *
+         * @return the time in nanoseconds
+         */
+        public long extractionNanos() {
+            return this.extractionNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "comparisons=" + this.comparisons() + ", exchanges="
+                    + this.exchanges + ", siftLevels=" + this.siftLevels
+                    + ", insertionNanos=" + this.insertionNanos
+                    + ", changeToExtractionModeNanos="
+                    + this.changeToExtractionModeNanos + ", extractionNanos="
+                    + this.extractionNanos;
+        }
+
+    }
+
     /**
      * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
      *
@@ -122,195 +434,225 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     }
 
     /**
-     * Given an array that represents a complete binary tree and an index
+     * Given an array that represents a complete d-ary tree and an index
      * referring to the root of a subtree that would be a heap except for its
      * root, sifts the root down to turn that whole subtree into a heap.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete d-ary tree
      * @param top
      *            the index of the root of the "subtree"
      * @param last
      *            the index of the last entry in the heap
      * @param order
      *            total preorder for sorting
+     * @param arity
+     *            the number of children of each node in the tree
+     * @return the number of levels the root moved down, each of them one
+     *         exchange
      * @updates array
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 0 <= top  and  last < |array|  and  arity >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
-     *     [relation computed by order.compare method])  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
-     *     [relation computed by order.compare method])  and
+     * [subtree rooted at {@code top} is a complete arity-ary tree]  and
+     * for all c: integer
+     *     where (arity * top + 1 <= c  and  c <= arity * top + arity)
+     *   (SUBTREE_IS_HEAP(array, arity, c, last,
+     *      [relation computed by order.compare method]))  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, last,
+     * SUBTREE_IS_HEAP(array, arity, top, last,
      *     [relation computed by order.compare method])  and
      * perms(array, #array)  and
-     * SUBTREE_ARRAY_ENTRIES(array, top, last) =
-     *  SUBTREE_ARRAY_ENTRIES(#array, top, last)  and
+     * SUBTREE_ARRAY_ENTRIES(array, arity, top, last) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, arity, top, last)  and
      * [the other entries in array are the same as in #array]
      * </pre>
      */
-    private static <T> void siftDown(T[] array, int top, int last,
-            Comparator<T> order) {
+    private static <T> int siftDown(T[] array, int top, int last,
+            Comparator<T> order, int arity) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
+        assert arity >= 2 : "Violation of: arity >= 2";
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array through last are not null";
+        }
+        for (int c = arity * top + 1; c <= arity * top + arity; c++) {
+            assert isHeap(array, c, last, order, arity) : ""
+                    + "Violation of: SUBTREE_IS_HEAP(array, arity, c, last,"
+                    + " [relation computed by order.compare method])";
         }
-        assert isHeap(array, 2 * top + 1, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
-                + " [relation computed by order.compare method])";
-        assert isHeap(array, 2 * top + 2, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
-                + " [relation computed by order.compare method])";
         /*
          * Impractical to check last requires clause; no need to check the other
          * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
+         * representation for a complete d-ary tree.
          */
 
-        //Get the index for the left and right trees
-        int left = top * 2 + 1;
-        int right = left + 1;
-        //Check if the right index is less than last, if it doesnt exist, check the left
-        if (right <= last) {
-            //Compare the roots of the left and right trees and find the smallest value
-            int smallestVal = order.compare(array[left], array[right]);
-            int smallestIndex = right;
-            if (smallestVal < 0) {
-                smallestIndex = left;
+        //Get the index of the first and last children of top
+        int firstChild = top * arity + 1;
+        int lastChild = Math.min(firstChild + arity - 1, last);
+        int levels = 0;
+        //Check if top has any children at all
+        if (firstChild <= last) {
+            //Compare the roots of the child trees and find the smallest value;
+            //the children sit next to each other, so this scans one short run
+            int smallestIndex = firstChild;
+            for (int child = firstChild + 1; child <= lastChild; child++) {
+                if (order.compare(array[child], array[smallestIndex]) < 0) {
+                    smallestIndex = child;
+                }
             }
             //Compare the smallest value to the value at top
             if (order.compare(array[smallestIndex], array[top]) < 0) {
                 //Swap the top with the smallest value and sift down
                 exchangeEntries(array, top, smallestIndex);
-                siftDown(array, smallestIndex, last, order);
-            }
-        } else if (left <= last) {
-            //Compare the left value to the top
-            if (order.compare(array[left], array[top]) < 0) {
-                //Swap the top with the left and sift down
-                exchangeEntries(array, top, left);
-                siftDown(array, left, last, order);
+                levels = 1 + siftDown(array, smallestIndex, last, order, arity);
             }
         }
 
+        return levels;
     }
 
     /**
-     * Heapifies the subtree of the given array rooted at the given {@code top}.
+     * Given an array that represents a complete d-ary tree that would be a
+     * heap through entry {@code last} except for entry {@code last} itself,
+     * sifts that entry up to turn the whole tree into a heap.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
-     * @param top
-     *            the index of the root of the "subtree" to heapify
+     *            the complete d-ary tree
+     * @param last
+     *            the index of the last entry in the heap
      * @param order
-     *            the total preorder for sorting
+     *            total preorder for sorting
+     * @param arity
+     *            the number of children of each node in the tree
+     * @return the number of levels the entry moved up, each of them one
+     *         exchange
      * @updates array
      * @requires <pre>
-     * 0 <= top  and
+     * 0 <= last < |array|  and  arity >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
+     * SUBTREE_IS_HEAP(array, arity, 0, last - 1,
+     *     [relation computed by order.compare method])  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, |array| - 1,
+     * SUBTREE_IS_HEAP(array, arity, 0, last,
      *     [relation computed by order.compare method])  and
-     * perms(array, #array)
+     * perms(array, #array)  and
+     * SUBTREE_ARRAY_ENTRIES(array, arity, 0, last) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, arity, 0, last)  and
+     * [the other entries in array are the same as in #array]
      * </pre>
      */
-    private static <T> void heapify(T[] array, int top, Comparator<T> order) {
+    private static <T> int siftUp(T[] array, int last, Comparator<T> order,
+            int arity) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
-        assert 0 <= top : "Violation of: 0 <= top";
-        for (int i = 0; i < array.length; i++) {
+        assert 0 <= last : "Violation of: 0 <= last";
+        assert last < array.length : "Violation of: last < |array|";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array through last are not null";
         }
-        /*
-         * Impractical to check last requires clause; no need to check the other
-         * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
-         */
-        //Get the index for the left and right trees, and the last value in the tree
-        int left = top * 2 + 1;
-        int right = left + 1;
-        int last = array.length - 1;
-        //Check if the right index is less than last, if it doesnt exist, check the left
-        if (right <= last) {
-            //Heapify the left and right trees
-            heapify(array, left, order);
-            heapify(array, right, order);
-        } else if (left <= last) {
-            //Heapify the left tree
-            heapify(array, left, order);
+        assert isHeap(array, 0, last - 1, order, arity) : ""
+                + "Violation of: SUBTREE_IS_HEAP(array, arity, 0, last - 1,"
+                + " [relation computed by order.compare method])";
+
+        //Swap the entry with its parent while it comes before the parent
+        int child = last;
+        int levels = 0;
+        while (child > 0) {
+            int parent = (child - 1) / arity;
+            if (order.compare(array[child], array[parent]) < 0) {
+                exchangeEntries(array, child, parent);
+                child = parent;
+                levels++;
+            } else {
+                //The entry is in place, so stop looking
+                child = 0;
+            }
         }
-        // sift down the root to complete heap
-        siftDown(array, top, last, order);
 
+        return levels;
     }
 
     /**
-     * Constructs and returns an array representing a heap with the entries from
-     * the given {@code Queue}.
+     * Heapifies the subtree of the given array rooted at the given {@code top}
+     * and only through entry {@code last}.
      *
      * @param <T>
-     *            type of {@code Queue} and array entries
-     * @param q
-     *            the {@code Queue} with the entries for the heap
+     *            type of array entries
+     * @param array
+     *            the complete d-ary tree
+     * @param top
+     *            the index of the root of the "subtree" to heapify
+     * @param last
+     *            the index of the last entry in the heap
      * @param order
      *            the total preorder for sorting
-     * @return the array representation of a heap
-     * @clears q
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
-     * @ensures <pre>
-     * SUBTREE_IS_HEAP(buildHeap, 0, |buildHeap| - 1)  and
-     * perms(buildHeap, #q)  and
+     * @param arity
+     *            the number of children of each node in the tree
+     * @return the total number of levels entries moved down, each of them
+     *         one exchange
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and  arity >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |buildHeap|)
-     *   ([entry at position i in buildHeap is not null])  and
+     *     where (0 <= i  and  i <= last)
+     *   ([entry at position i in array is not null])  and
+     * [subtree rooted at {@code top} is a complete arity-ary tree]  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, arity, top, last,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * SUBTREE_ARRAY_ENTRIES(array, arity, top, last) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, arity, top, last)  and
+     * [the other entries in array are the same as in #array]
      * </pre>
      */
-    @SuppressWarnings("unchecked")
-    private static <T> T[] buildHeap(Queue<T> q, Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
+    private static <T> int heapify(T[] array, int top, int last,
+            Comparator<T> order, int arity) {
+        assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        for (int i = 0; i <= last; i++) {
+            assert array[i] != null : ""
+                    + "Violation of: all entries in array through last are not null";
+        }
         /*
-         * Impractical to check the requires clause.
-         */
-        /*
-         * With "new T[...]" in place of "new Object[...]" it does not compile;
-         * as shown, it results in a warning about an unchecked cast, though it
-         * cannot fail.
+         * Impractical to check last requires clause; no need to check the other
+         * requires clause, because it must be true when using the array
+         * representation for a complete d-ary tree.
          */
-        T[] heap = (T[]) (new Object[q.length()]);
-
-        //Loop through the queue while its length is greater than 0
-        int i = 0;
-        while (q.length() > 0) {
-            //Dequeue the values from the queue and add them to the heap
-            heap[i] = q.dequeue();
-            i++;
+        //Heapify each child tree that exists
+        int firstChild = top * arity + 1;
+        int lastChild = Math.min(firstChild + arity - 1, last);
+        int levels = 0;
+        for (int child = firstChild; child <= lastChild; child++) {
+            levels += heapify(array, child, last, order, arity);
         }
-        //Heapify the heap
-        heapify(heap, 0, order);
-        //Return the heap
-        return heap;
+        // sift down the root to complete heap
+        levels += siftDown(array, top, last, order, arity);
+
+        return levels;
     }
 
     /**
@@ -320,54 +662,388 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete d-ary tree
      * @param top
      *            the index of the root of the "subtree"
      * @param last
      *            the index of the last entry in the heap
      * @param order
      *            total preorder for sorting
+     * @param arity
+     *            the number of children of each node in the tree
      * @return true if the subtree of the given {@code array} rooted at the
      *         given {@code top} is a heap; false otherwise
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 0 <= top  and  last < |array|  and  arity >= 2  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]
+     * [subtree rooted at {@code top} is a complete arity-ary tree]
      * </pre>
      * @ensures <pre>
-     * isHeap = SUBTREE_IS_HEAP(array, top, last,
+     * isHeap = SUBTREE_IS_HEAP(array, arity, top, last,
      *     [relation computed by order.compare method])
      * </pre>
      */
     private static <T> boolean isHeap(T[] array, int top, int last,
-            Comparator<T> order) {
+            Comparator<T> order, int arity) {
         assert array != null : "Violation of: array is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
+        assert arity >= 2 : "Violation of: arity >= 2";
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array through last are not null";
         }
         /*
          * No need to check the other requires clause, because it must be true
-         * when using the Array representation for a complete binary tree.
+         * when using the Array representation for a complete d-ary tree.
          */
-        int left = 2 * top + 1;
+        int firstChild = arity * top + 1;
+        int lastChild = Math.min(firstChild + arity - 1, last);
         boolean isHeap = true;
-        if (left <= last) {
-            isHeap = (order.compare(array[top], array[left]) <= 0)
-                    && isHeap(array, left, last, order);
-            int right = left + 1;
-            if (isHeap && (right <= last)) {
-                isHeap = (order.compare(array[top], array[right]) <= 0)
-                        && isHeap(array, right, last, order);
-            }
+        for (int child = firstChild; isHeap && child <= lastChild; child++) {
+            isHeap = (order.compare(array[top], array[child]) <= 0)
+                    && isHeap(array, child, last, order, arity);
         }
         return isHeap;
     }
 
+    /**
+     * Sorts {@code array[lo, hi)} by insertion sort.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to sort
+     * @param lo
+     *            the index of the first entry to sort
+     * @param hi
+     *            the index just past the last entry to sort
+     * @param order
+     *            total preorder for sorting
+     * @return the number of entries moved one position to the right
+     * @updates array
+     * @requires <pre>
+     * 0 <= lo <= hi <= |array|  and
+     * [entries in array[lo, hi) are not null]  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * [entries in array[lo, hi) are in non-decreasing order according to the
+     *  relation computed by order.compare method]  and
+     * perms(array[lo, hi), #array[lo, hi))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> int insertionSort(T[] array, int lo, int hi,
+            Comparator<T> order) {
+        int moves = 0;
+        for (int i = lo + 1; i < hi; i++) {
+            T x = array[i];
+            int j = i;
+            while (j > lo && order.compare(x, array[j - 1]) < 0) {
+                array[j] = array[j - 1];
+                j--;
+            }
+            array[j] = x;
+            moves += i - j;
+        }
+        return moves;
+    }
+
+    /**
+     * Partitions {@code array[lo, hi)} around the median of its first, middle,
+     * and last entries into the entries that come before that pivot, the
+     * entries equal to it, and the entries that come after it.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to partition
+     * @param lo
+     *            the index of the first entry to partition
+     * @param hi
+     *            the index just past the last entry to partition
+     * @param order
+     *            total preorder for sorting
+     * @return the indices {lt, gt} such that the entries equal to the pivot
+     *         are at indices lt through gt, followed by the number of
+     *         exchanges made
+     * @updates array
+     * @requires <pre>
+     * 0 <= lo < hi <= |array|  and
+     * [entries in array[lo, hi) are not null]  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * lo <= partition[0] <= partition[1] < hi  and
+     * partition[2] = [number of exchanges made]  and
+     * [entries in array[lo, partition[0]) come before the pivot]  and
+     * [entries in array[partition[0], partition[1]] are equal to the pivot]  and
+     * [entries in array(partition[1], hi) come after the pivot]  and
+     * perms(array[lo, hi), #array[lo, hi))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> int[] partition(T[] array, int lo, int hi,
+            Comparator<T> order) {
+        //Take the median of the first, middle, and last entries as the pivot
+        T a = array[lo];
+        T b = array[lo + (hi - lo) / 2];
+        T c = array[hi - 1];
+        T pivot;
+        if (order.compare(a, b) < 0) {
+            if (order.compare(b, c) <= 0) {
+                pivot = b;
+            } else if (order.compare(a, c) < 0) {
+                pivot = c;
+            } else {
+                pivot = a;
+            }
+        } else {
+            if (order.compare(a, c) <= 0) {
+                pivot = a;
+            } else if (order.compare(b, c) < 0) {
+                pivot = c;
+            } else {
+                pivot = b;
+            }
+        }
+        //Keep array[lo, lt) before the pivot, array[lt, i) equal to it, and
+        //array(gt, hi) after it
+        int lt = lo;
+        int gt = hi - 1;
+        int i = lo;
+        int exchanges = 0;
+        while (i <= gt) {
+            int cmp = order.compare(array[i], pivot);
+            if (cmp < 0) {
+                exchangeEntries(array, lt, i);
+                lt++;
+                i++;
+                exchanges++;
+            } else if (cmp > 0) {
+                exchangeEntries(array, i, gt);
+                gt--;
+                exchanges++;
+            } else {
+                i++;
+            }
+        }
+        return new int[] { lt, gt, exchanges };
+    }
+
+    /**
+     * Checks if every entry in {@code array[lo, mid)} comes before or is equal
+     * to every entry in {@code array[mid, hi)}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to check
+     * @param lo
+     *            the index of the first entry to check
+     * @param mid
+     *            the index where the second part starts
+     * @param hi
+     *            the index just past the last entry to check
+     * @param order
+     *            total preorder for sorting
+     * @return true if {@code array[lo, hi)} is partitioned at {@code mid};
+     *         false otherwise
+     * @requires <pre>
+     * 0 <= lo <= mid <= hi <= |array|  and
+     * [entries in array[lo, hi) are not null]
+     * </pre>
+     * @ensures <pre>
+     * isPartitioned = [every entry in array[lo, mid) comes before or is equal
+     *  to every entry in array[mid, hi) according to the relation computed by
+     *  order.compare method]
+     * </pre>
+     */
+    private static <T> boolean isPartitioned(T[] array, int lo, int mid,
+            int hi, Comparator<T> order) {
+        boolean isPartitioned = true;
+        if (lo < mid && mid < hi) {
+            T largest = array[lo];
+            for (int i = lo + 1; i < mid; i++) {
+                if (order.compare(array[i], largest) > 0) {
+                    largest = array[i];
+                }
+            }
+            for (int i = mid; isPartitioned && i < hi; i++) {
+                isPartitioned = order.compare(largest, array[i]) <= 0;
+            }
+        }
+        return isPartitioned;
+    }
+
+    /**
+     * Sets {@code this.sortOrder} and {@code this.reverseSortOrder} to the
+     * machine's orders, wrapped to count comparisons if metrics are enabled.
+     *
+     * @updates this.sortOrder, this.reverseSortOrder
+     * @ensures <pre>
+     * [this.sortOrder and this.reverseSortOrder compute the same relations as
+     *  this.machineOrder and this.reverseOrder, and also count comparisons in
+     *  this.metrics if it is not null]
+     * </pre>
+     */
+    private void installSortOrders() {
+        if (this.metrics == null) {
+            this.sortOrder = this.machineOrder;
+            this.reverseSortOrder = this.reverseOrder;
+        } else {
+            LongAdder counter = this.metrics.comparisons;
+            Comparator<T> order = this.machineOrder;
+            Comparator<T> reverse = this.reverseOrder;
+            this.sortOrder = (x, y) -> {
+                counter.increment();
+                return order.compare(x, y);
+            };
+            this.reverseSortOrder = (x, y) -> {
+                counter.increment();
+                return reverse.compare(x, y);
+            };
+        }
+    }
+
+    /**
+     * Adds {@code exchanges} and {@code levels} to the metrics, if enabled.
+     *
+     * @param exchanges
+     *            the number of exchanges made
+     * @param levels
+     *            the number of sift levels moved
+     * @updates this.metrics
+     * @ensures <pre>
+     * if this.metrics /= null then
+     *   this.metrics.exchanges = #this.metrics.exchanges + exchanges  and
+     *   this.metrics.siftLevels = #this.metrics.siftLevels + levels
+     * </pre>
+     */
+    private void countMoves(int exchanges, int levels) {
+        if (this.metrics != null) {
+            this.metrics.exchanges += exchanges;
+            this.metrics.siftLevels += levels;
+        }
+    }
+
+    /**
+     * Partitions the block of entries holding the entry at the cursor until
+     * at least that entry is in its final position.
+     *
+     * @updates this.heap, this.blockEnds, this.blockCount, this.sortedEnd
+     * @requires <pre>
+     * this.strategy = INCREMENTAL_QUICKSORT  and
+     * not this.insertionMode  and
+     * this.firstIndex = this.sortedEnd < this.firstIndex + this.heapSize
+     * </pre>
+     * @ensures <pre>
+     * this.firstIndex < this.sortedEnd  and
+     * perms(this.heap, #this.heap)
+     * </pre>
+     */
+    private void sortNextEntries() {
+        while (this.sortedEnd == this.firstIndex) {
+            //Drop the blocks whose entries have all been removed
+            while (this.blockEnds[this.blockCount - 1] <= this.firstIndex) {
+                this.blockCount--;
+            }
+            int lo = this.firstIndex;
+            int hi = this.blockEnds[this.blockCount - 1];
+            if (hi - lo <= INSERTION_SORT_LENGTH) {
+                //Sort a short block outright
+                int moves = insertionSort(this.heap, lo, hi, this.sortOrder);
+                this.countMoves(moves, 0);
+                this.sortedEnd = hi;
+                this.blockCount--;
+            } else {
+                int[] equal = partition(this.heap, lo, hi, this.sortOrder);
+                this.countMoves(equal[2], 0);
+                //The entries after the pivot form a block of their own
+                if (equal[1] + 1 < hi) {
+                    this.pushBlockEnd(equal[1] + 1);
+                }
+                if (equal[0] == lo) {
+                    //The entries equal to the pivot come first and are in place
+                    this.sortedEnd = equal[1] + 1;
+                } else {
+                    this.pushBlockEnd(equal[0]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pushes {@code end} onto the stack of block ends, growing it if needed.
+     *
+     * @param end
+     *            the end of the block
+     * @updates this.blockEnds, this.blockCount
+     * @ensures <pre>
+     * this.blockCount = #this.blockCount + 1  and
+     * this.blockEnds[0, this.blockCount) =
+     *   #this.blockEnds[0, #this.blockCount) * <end>
+     * </pre>
+     */
+    private void pushBlockEnd(int end) {
+        if (this.blockCount == this.blockEnds.length) {
+            this.blockEnds = Arrays.copyOf(this.blockEnds,
+                    this.blockCount * 2);
+        }
+        this.blockEnds[this.blockCount] = end;
+        this.blockCount++;
+    }
+
+    /**
+     * Removes and returns the first entry, without checking the convention.
+     *
+     * @return the entry removed
+     * @updates this
+     * @requires not this.insertionMode  and  this.heapSize > 0
+     * @ensures <pre>
+     * removeFirstEntry is in #this.contents  and
+     * this.contents = #this.contents \ {removeFirstEntry}  and
+     * for all x: T where (x is in this.contents)
+     *   ([relation computed by this.machineOrder.compare method](
+     *      removeFirstEntry, x))
+     * </pre>
+     */
+    private T removeFirstEntry() {
+        T first;
+        if (this.strategy != ExtractionStrategy.HEAPSORT) {
+            //Put the next entries in their final position if needed
+            if (this.strategy == ExtractionStrategy.INCREMENTAL_QUICKSORT
+                    && this.firstIndex == this.sortedEnd) {
+                this.sortNextEntries();
+            }
+            //Take the entry at the cursor and move the cursor past it
+            first = this.heap[this.firstIndex];
+            this.heap[this.firstIndex] = null;
+            this.firstIndex++;
+            this.heapSize--;
+        } else {
+            //Remove the root of the tree
+            first = this.heap[0];
+
+            //Make the new root the last element in the tree
+            this.heap[0] = this.heap[this.heapSize - 1];
+
+            //Decrease the heap size and release the vacated position
+            this.heapSize--;
+            this.heap[this.heapSize] = null;
+
+            //Sift down the new root so the tree is still a heap
+            int levels = siftDown(this.heap, 0, this.heapSize - 1,
+                    this.sortOrder, this.arity);
+            this.countMoves(levels, levels);
+        }
+
+        return first;
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -375,39 +1051,162 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
      * @convention <pre>
-     * if $this.insertionMode then
-     *   $this.heapSize = 0
-     * else
-     *   $this.entries = <>  and
+     * $this.capacity > 0  and
+     * $this.strategy is not null  and
+     * $this.arity >= 2  and
+     * if $this.insertionMode then $this.firstIndex = 0  and
+     * if $this.insertionMode  and  $this.capacity = UNBOUNDED then
+     *   for all i: integer
+     *       where (0 <= i  and  i < $this.heapSize)
+     *     ([entry at position i in $this.heap is not null])  and
+     *   0 <= $this.heapSize <= |$this.heap|
+     * else if $this.insertionMode then
+     *   for all i: integer
+     *       where (0 <= i  and  i < $this.heapSize)
+     *     ([entry at position i in $this.heap is not null])  and
+     *   SUBTREE_IS_HEAP($this.heap, $this.arity, 0, $this.heapSize - 1,
+     *     [relation computed by $this.reverseOrder.compare method])  and
+     *   0 <= $this.heapSize <= min(|$this.heap|, $this.capacity)
+     * else if $this.strategy = HEAPSORT then
+     *   $this.firstIndex = 0  and
      *   for all i: integer
-     *       where (0 <= i  and  i < |$this.heap|)
+     *       where (0 <= i  and  i < $this.heapSize)
      *     ([entry at position i in $this.heap is not null])  and
-     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+     *   SUBTREE_IS_HEAP($this.heap, $this.arity, 0, $this.heapSize - 1,
      *     [relation computed by $this.machineOrder.compare method])  and
      *   0 <= $this.heapSize <= |$this.heap|
+     * else
+     *   0 <= $this.firstIndex  and  0 <= $this.heapSize  and
+     *   $this.firstIndex + $this.heapSize <= |$this.heap|  and
+     *   for all i: integer
+     *       where ($this.firstIndex <= i  and
+     *              i < $this.firstIndex + $this.heapSize)
+     *     ([entry at position i in $this.heap is not null])  and
+     *   if $this.strategy = PARALLEL_SORT then
+     *     [entries in $this.heap[$this.firstIndex,
+     *       $this.firstIndex + $this.heapSize) are in non-decreasing order
+     *       according to the relation computed by $this.machineOrder.compare method]
+     *   else
+     *     $this.firstIndex <= $this.sortedEnd <=
+     *       $this.firstIndex + $this.heapSize  and
+     *     [entries in $this.heap[$this.firstIndex, $this.sortedEnd) are in
+     *       non-decreasing order according to the relation computed by
+     *       $this.machineOrder.compare method]  and
+     *     [entries in $this.blockEnds[0, $this.blockCount) are in decreasing
+     *       order, and each is at least $this.sortedEnd and at most
+     *       $this.firstIndex + $this.heapSize]  and
+     *     for all b: integer
+     *         where (b = $this.sortedEnd  or
+     *                b is in entries($this.blockEnds[0, $this.blockCount)))
+     *       ([every entry in $this.heap[$this.firstIndex, b) comes before or
+     *         is equal to every entry in $this.heap[b,
+     *         $this.firstIndex + $this.heapSize) according to the relation
+     *         computed by $this.machineOrder.compare method])
      * </pre>
      */
     private boolean conventionHolds() {
-        if (this.insertionMode) {
-            assert this.heapSize == 0 : ""
-                    + "Violation of: if $this.insertionMode then $this.heapSize = 0";
+        assert this.capacity > 0 : "Violation of: $this.capacity > 0";
+        assert this.strategy != null : "Violation of: $this.strategy is not null";
+        assert this.arity >= 2 : "Violation of: $this.arity >= 2";
+        assert !this.insertionMode || this.firstIndex == 0 : ""
+                + "Violation of: if $this.insertionMode then $this.firstIndex = 0";
+        if (this.insertionMode && this.capacity == UNBOUNDED) {
+            assert 0 <= this.heapSize : ""
+                    + "Violation of: if $this.insertionMode then 0 <= $this.heapSize";
+            assert this.heapSize <= this.heap.length : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.heapSize <= |$this.heap|";
+            for (int i = 0; i < this.heapSize; i++) {
+                assert this.heap[i] != null : ""
+                        + "Violation of: if $this.insertionMode then"
+                        + " all entries in $this.heap[0, $this.heapSize) are not null";
+            }
+        } else if (this.insertionMode) {
+            assert 0 <= this.heapSize : ""
+                    + "Violation of: if $this.insertionMode then 0 <= $this.heapSize";
+            assert this.heapSize <= this.heap.length : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.heapSize <= |$this.heap|";
+            assert this.heapSize <= this.capacity : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.heapSize <= $this.capacity";
+            for (int i = 0; i < this.heapSize; i++) {
+                assert this.heap[i] != null : ""
+                        + "Violation of: if $this.insertionMode then"
+                        + " all entries in $this.heap[0, $this.heapSize) are not null";
+            }
+            assert isHeap(this.heap, 0, this.heapSize - 1, this.reverseOrder,
+                    this.arity) : ""
+                            + "Violation of: if $this.insertionMode then"
+                            + " SUBTREE_IS_HEAP($this.heap, $this.arity, 0,"
+                            + " $this.heapSize - 1,"
+                            + " [relation computed by $this.reverseOrder.compare"
+                            + " method])";
+        } else if (this.strategy != ExtractionStrategy.HEAPSORT) {
+            assert 0 <= this.firstIndex : ""
+                    + "Violation of: if not $this.insertionMode then 0 <= $this.firstIndex";
+            assert 0 <= this.heapSize : ""
+                    + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
+            assert this.firstIndex + this.heapSize <= this.heap.length : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.firstIndex + $this.heapSize <= |$this.heap|";
+            int end = this.firstIndex + this.heapSize;
+            int sortedStop = end;
+            if (this.strategy == ExtractionStrategy.INCREMENTAL_QUICKSORT) {
+                sortedStop = this.sortedEnd;
+                assert this.firstIndex <= this.sortedEnd
+                        && this.sortedEnd <= end : ""
+                                + "Violation of: $this.firstIndex <= $this.sortedEnd"
+                                + " <= $this.firstIndex + $this.heapSize";
+                assert isPartitioned(this.heap, this.firstIndex,
+                        this.sortedEnd, end, this.machineOrder) : ""
+                                + "Violation of: [$this.heap is partitioned at"
+                                + " $this.sortedEnd]";
+                for (int k = 0; k < this.blockCount; k++) {
+                    assert this.sortedEnd <= this.blockEnds[k]
+                            && this.blockEnds[k] <= end : ""
+                                    + "Violation of: [each entry in $this.blockEnds is"
+                                    + " at least $this.sortedEnd and at most"
+                                    + " $this.firstIndex + $this.heapSize]";
+                    assert k == 0 || this.blockEnds[k] < this.blockEnds[k - 1] : ""
+                            + "Violation of: [entries in $this.blockEnds[0,"
+                            + " $this.blockCount) are in decreasing order]";
+                    assert isPartitioned(this.heap, this.firstIndex,
+                            this.blockEnds[k], end, this.machineOrder) : ""
+                                    + "Violation of: [$this.heap is partitioned at"
+                                    + " each entry in $this.blockEnds]";
+                }
+            }
+            for (int i = this.firstIndex; i < end; i++) {
+                assert this.heap[i] != null : ""
+                        + "Violation of: if not $this.insertionMode then all entries"
+                        + " in $this.heap[$this.firstIndex,"
+                        + " $this.firstIndex + $this.heapSize) are not null";
+                assert (i == this.firstIndex) || (i >= sortedStop)
+                        || (this.machineOrder.compare(this.heap[i - 1],
+                                this.heap[i]) <= 0) : ""
+                                        + "Violation of: if not $this.insertionMode then"
+                                        + " [sorted entries in $this.heap are in"
+                                        + " non-decreasing order]";
+            }
         } else {
-            assert this.entries.length() == 0 : ""
-                    + "Violation of: if not $this.insertionMode then $this.entries = <>";
+            assert this.firstIndex == 0 : ""
+                    + "Violation of: if not $this.insertionMode then $this.firstIndex = 0";
             assert 0 <= this.heapSize : ""
                     + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
             assert this.heapSize <= this.heap.length : ""
                     + "Violation of: if not $this.insertionMode then"
                     + " $this.heapSize <= |$this.heap|";
-            for (int i = 0; i < this.heap.length; i++) {
+            for (int i = 0; i < this.heapSize; i++) {
                 assert this.heap[i] != null : ""
                         + "Violation of: if not $this.insertionMode then"
-                        + " all entries in $this.heap are not null";
+                        + " all entries in $this.heap[0, $this.heapSize) are not null";
             }
-            assert isHeap(this.heap, 0, this.heapSize - 1,
-                    this.machineOrder) : ""
+            assert isHeap(this.heap, 0, this.heapSize - 1, this.machineOrder,
+                    this.arity) : ""
                             + "Violation of: if not $this.insertionMode then"
-                            + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+                            + " SUBTREE_IS_HEAP($this.heap, $this.arity, 0,"
+                            + " $this.heapSize - 1,"
                             + " [relation computed by $this.machineOrder.compare"
                             + " method])";
         }
@@ -419,20 +1218,52 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *
      * @param order
      *            total preorder for sorting
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @param capacity
+     *            maximum number of entries kept
+     * @param strategy
+     *            how entries are put in order when changing to extraction
+     *            mode
+     * @param arity
+     *            number of children of each node in the heap
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * capacity > 0  and  strategy is not null  and  arity >= 2
+     * </pre>
      * @ensures <pre>
      * $this.insertionMode = true  and
      * $this.machineOrder = order  and
-     * $this.entries = <>  and
-     * $this.heapSize = 0
+     * $this.reverseOrder = [reverse of order]  and
+     * $this.capacity = capacity  and
+     * $this.strategy = strategy  and
+     * $this.arity = arity  and
+     * $this.heapSize = 0  and
+     * $this.firstIndex = 0  and
+     * $this.blockCount = 0  and
+     * $this.sortedEnd = 0
      * </pre>
      */
-    private void createNewRep(Comparator<T> order) {
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int capacity,
+            ExtractionStrategy strategy, int arity) {
         //Create sorting machine
         this.insertionMode = true;
         this.machineOrder = order;
-        this.entries = new Queue1L<T>();
+        this.reverseOrder = Collections.reverseOrder(order);
+        this.installSortOrders();
+        this.capacity = capacity;
+        this.strategy = strategy;
+        this.arity = arity;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.heap = (T[]) (new Object[Math.min(capacity, INITIAL_HEAP_LENGTH)]);
         this.heapSize = 0;
+        this.firstIndex = 0;
+        this.blockEnds = new int[0];
+        this.blockCount = 0;
+        this.sortedEnd = 0;
 
     }
 
@@ -447,7 +1278,114 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            total preorder for sorting
      */
     public SortingMachine5a(Comparator<T> order) {
-        this.createNewRep(order);
+        this.createNewRep(order, UNBOUNDED, ExtractionStrategy.HEAPSORT,
+                DEFAULT_ARITY);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order and capacity. The resulting machine keeps only
+     * the first {@code capacity} entries (according to {@code order}) of
+     * everything added to it; an entry that cannot be among them is discarded
+     * when it is added, or later when enough entries that come before it have
+     * been added.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param capacity
+     *            maximum number of entries kept
+     * @requires capacity > 0
+     */
+    public SortingMachine5a(Comparator<T> order, int capacity) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+        this.createNewRep(order, capacity, ExtractionStrategy.HEAPSORT,
+                DEFAULT_ARITY);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order and extraction strategy.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param strategy
+     *            how entries are put in order when changing to extraction
+     *            mode
+     */
+    public SortingMachine5a(Comparator<T> order, ExtractionStrategy strategy) {
+        assert strategy != null : "Violation of: strategy is not null";
+        this.createNewRep(order, UNBOUNDED, strategy, DEFAULT_ARITY);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order, extraction strategy, and heap arity. The
+     * resulting machine's heap gives each node {@code arity} children.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param strategy
+     *            how entries are put in order when changing to extraction
+     *            mode
+     * @param arity
+     *            number of children of each node in the heap
+     * @requires arity >= 2
+     */
+    public SortingMachine5a(Comparator<T> order, ExtractionStrategy strategy,
+            int arity) {
+        assert strategy != null : "Violation of: strategy is not null";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        this.createNewRep(order, UNBOUNDED, strategy, arity);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order, capacity, and extraction strategy. The resulting
+     * machine keeps only the first {@code capacity} entries (according to
+     * {@code order}) of everything added to it.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param capacity
+     *            maximum number of entries kept
+     * @param strategy
+     *            how entries are put in order when changing to extraction
+     *            mode
+     * @requires capacity > 0
+     */
+    public SortingMachine5a(Comparator<T> order, int capacity,
+            ExtractionStrategy strategy) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+        assert strategy != null : "Violation of: strategy is not null";
+        this.createNewRep(order, capacity, strategy, DEFAULT_ARITY);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order, capacity, extraction strategy, and heap arity.
+     * The resulting machine keeps only the first {@code capacity} entries
+     * (according to {@code order}) of everything added to it, and its heap
+     * gives each node {@code arity} children. A wider heap is shallower and
+     * its sift-down compares children that sit next to each other in memory,
+     * at the cost of more comparisons per level.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param capacity
+     *            maximum number of entries kept
+     * @param strategy
+     *            how entries are put in order when changing to extraction
+     *            mode
+     * @param arity
+     *            number of children of each node in the heap
+     * @requires capacity > 0  and  arity >= 2
+     */
+    public SortingMachine5a(Comparator<T> order, int capacity,
+            ExtractionStrategy strategy, int arity) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+        assert strategy != null : "Violation of: strategy is not null";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        this.createNewRep(order, capacity, strategy, arity);
         assert this.conventionHolds();
     }
 
@@ -459,8 +1397,10 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final SortingMachine<T> newInstance() {
         try {
-            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
-            return (SortingMachine<T>) c.newInstance(this.machineOrder);
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    int.class, ExtractionStrategy.class, int.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.capacity, this.strategy, this.arity);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -469,7 +1409,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     @Override
     public final void clear() {
-        this.createNewRep(this.machineOrder);
+        this.createNewRep(this.machineOrder, this.capacity, this.strategy,
+                this.arity);
         assert this.conventionHolds();
     }
 
@@ -488,10 +1429,19 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         SortingMachine5a<T> localSource = (SortingMachine5a<T>) source;
         this.insertionMode = localSource.insertionMode;
         this.machineOrder = localSource.machineOrder;
-        this.entries = localSource.entries;
+        this.reverseOrder = localSource.reverseOrder;
+        this.installSortOrders();
+        this.capacity = localSource.capacity;
+        this.strategy = localSource.strategy;
+        this.arity = localSource.arity;
         this.heap = localSource.heap;
         this.heapSize = localSource.heapSize;
-        localSource.createNewRep(localSource.machineOrder);
+        this.firstIndex = localSource.firstIndex;
+        this.blockEnds = localSource.blockEnds;
+        this.blockCount = localSource.blockCount;
+        this.sortedEnd = localSource.sortedEnd;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.capacity, localSource.strategy, localSource.arity);
         assert this.conventionHolds();
         assert localSource.conventionHolds();
     }
@@ -505,8 +1455,35 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        //Enqueue the incoming value
-        this.entries.enqueue(x);
+        long start = 0;
+        if (this.metrics != null) {
+            start = System.nanoTime();
+        }
+        int levels = 0;
+        if (this.heapSize < this.capacity) {
+            //Grow the array if it is full, but never past the capacity
+            if (this.heapSize == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap,
+                        (int) Math.min((long) this.heapSize * 2, this.capacity));
+            }
+            //Put the incoming value at the end
+            this.heap[this.heapSize] = x;
+            //A machine with a capacity keeps its entries in a heap all along
+            if (this.capacity != UNBOUNDED) {
+                levels = siftUp(this.heap, this.heapSize, this.reverseSortOrder,
+                        this.arity);
+            }
+            this.heapSize++;
+        } else if (this.sortOrder.compare(x, this.heap[0]) < 0) {
+            //Replace the entry that would be removed last and sift down
+            this.heap[0] = x;
+            levels = siftDown(this.heap, 0, this.heapSize - 1,
+                    this.reverseSortOrder, this.arity);
+        }
+        if (this.metrics != null) {
+            this.countMoves(levels, levels);
+            this.metrics.insertionNanos += System.nanoTime() - start;
+        }
 
         //Makes sure that the heap is correct
         assert this.conventionHolds();
@@ -516,11 +1493,30 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     public final void changeToExtractionMode() {
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        //Take the values in entries and creates an array representation of a heap
-        this.heap = buildHeap(this.entries, this.machineOrder);
-
-        //Set heap size
-        this.heapSize = this.heap.length;
+        long start = 0;
+        if (this.metrics != null) {
+            start = System.nanoTime();
+        }
+        if (this.strategy == ExtractionStrategy.PARALLEL_SORT) {
+            //Sort the entries in place, splitting the work across the common
+            //ForkJoinPool
+            Arrays.parallelSort(this.heap, 0, this.heapSize, this.sortOrder);
+        } else if (this.strategy == ExtractionStrategy.INCREMENTAL_QUICKSORT) {
+            //Leave all the entries in one block to be partitioned on demand
+            this.blockEnds = new int[INITIAL_BLOCK_STACK_LENGTH];
+            this.blockEnds[0] = this.heapSize;
+            this.blockCount = 1;
+            this.sortedEnd = 0;
+        } else {
+            //Turn the entries into a heap in place using the machine order
+            int levels = heapify(this.heap, 0, this.heapSize - 1,
+                    this.sortOrder, this.arity);
+            this.countMoves(levels, levels);
+        }
+        if (this.metrics != null) {
+            this.metrics.changeToExtractionModeNanos += System.nanoTime()
+                    - start;
+        }
 
         //Change to extraction mode
         this.insertionMode = false;
@@ -535,22 +1531,19 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                 .isInInsertionMode() : "Violation of: not this.insertion_mode";
         assert this.size() > 0 : "Violation of: this.contents /= {}";
 
-        //Remove the root of the tree
-        T first = this.heap[0];
-
-        //Make the new root the last element in the tree
-        this.heap[0] = this.heap[this.heapSize - 1];
-
-        //Decrease the heap size
-        this.heapSize--;
-
-        //Sift down the new root so the tree is still a heap
-        siftDown(this.heap, 0, this.heapSize, this.machineOrder);
+        long start = 0;
+        if (this.metrics != null) {
+            start = System.nanoTime();
+        }
+        T first = this.removeFirstEntry();
+        if (this.metrics != null) {
+            this.metrics.extractionNanos += System.nanoTime() - start;
+        }
 
         //Makes sure that the heap is correct
         assert this.conventionHolds();
 
-        //Return the removed root
+        //Return the removed entry
         return first;
     }
 
@@ -569,23 +1562,155 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final int size() {
 
-        //Check if the sorting machine is in insertion mode
-        int s = 0;
-        if (this.insertionMode) {
+        //Set s equal to heapSize, the number of entries in either mode
+        int s = this.heapSize;
+
+        //Makes sure that the heap is correct
+        assert this.conventionHolds();
+
+        //Return the size
+        return s;
+    }
 
-            //Set s equal to the length of the queue
-            s = this.entries.length();
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Removes the first {@code n} entries from {@code this}, in order, into
+     * {@code dest[0, n)}. This is equivalent to calling {@code removeFirst}
+     * {@code n} times, but checks the convention only once; when the entries
+     * are already sorted they are moved with a single array copy.
+     *
+     * @param n
+     *            the number of entries to remove
+     * @param dest
+     *            the array receiving the entries
+     * @updates this, dest
+     * @requires <pre>
+     * not this.insertion_mode  and  0 <= n <= |this.contents|  and
+     * n <= |dest|
+     * </pre>
+     * @ensures <pre>
+     * [dest[0, n) holds the first n entries of #this.contents in order,
+     *  according to the relation computed by this.order.compare method]  and
+     * this.contents = #this.contents \ [entries of dest[0, n)]  and
+     * [the other entries in dest are the same as in #dest]
+     * </pre>
+     */
+    public final void removeFirst(int n, T[] dest) {
+        assert dest != null : "Violation of: dest is not null";
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert 0 <= n : "Violation of: 0 <= n";
+        assert n <= this.size() : "Violation of: n <= |this.contents|";
+        assert n <= dest.length : "Violation of: n <= |dest|";
+
+        long start = 0;
+        if (this.metrics != null) {
+            start = System.nanoTime();
+        }
+        if (this.strategy == ExtractionStrategy.HEAPSORT) {
+            for (int i = 0; i < n; i++) {
+                dest[i] = this.removeFirstEntry();
+            }
         } else {
+            //Copy the sorted entries at the cursor a chunk at a time; with
+            //PARALLEL_SORT all of them are sorted, so there is one chunk
+            int copied = 0;
+            while (copied < n) {
+                int sortedStop = this.firstIndex + this.heapSize;
+                if (this.strategy == ExtractionStrategy.INCREMENTAL_QUICKSORT) {
+                    if (this.firstIndex == this.sortedEnd) {
+                        this.sortNextEntries();
+                    }
+                    sortedStop = this.sortedEnd;
+                }
+                int chunk = Math.min(n - copied, sortedStop - this.firstIndex);
+                System.arraycopy(this.heap, this.firstIndex, dest, copied,
+                        chunk);
+                Arrays.fill(this.heap, this.firstIndex, this.firstIndex + chunk,
+                        null);
+                this.firstIndex += chunk;
+                this.heapSize -= chunk;
+                copied += chunk;
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.extractionNanos += System.nanoTime() - start;
+        }
 
-            //Set s equal to heapSize
-            s = this.heapSize;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes all entries from {@code this}, in order, passing each to
+     * {@code action} as it is removed. The convention is checked only once,
+     * rather than once per entry.
+     *
+     * @param action
+     *            the action to perform on each entry
+     * @updates this
+     * @requires <pre>
+     * not this.insertion_mode  and
+     * [action does not call any method of this]
+     * </pre>
+     * @ensures <pre>
+     * [action has been performed on the entries of #this.contents in order,
+     *  according to the relation computed by this.order.compare method]  and
+     * this.contents = {}  and  not this.insertion_mode
+     * </pre>
+     */
+    public final void drainSorted(Consumer<? super T> action) {
+        assert action != null : "Violation of: action is not null";
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+
+        long start = 0;
+        if (this.metrics != null) {
+            start = System.nanoTime();
+        }
+        while (this.heapSize > 0) {
+            action.accept(this.removeFirstEntry());
+        }
+        if (this.metrics != null) {
+            this.metrics.extractionNanos += System.nanoTime() - start;
         }
 
-        //Makes sure that the heap is correct
         assert this.conventionHolds();
+    }
 
-        //Return the size
-        return s;
+    /**
+     * Starts gathering metrics for {@code this}, from zero.
+     *
+     * @ensures [metrics() returns new, zeroed metrics that this updates]
+     */
+    public final void enableMetrics() {
+        this.metrics = new Metrics();
+        this.installSortOrders();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Stops gathering metrics for {@code this}.
+     *
+     * @ensures metrics() = null
+     */
+    public final void disableMetrics() {
+        this.metrics = null;
+        this.installSortOrders();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports the metrics gathered for {@code this} since
+     * {@code enableMetrics} was last called.
+     *
+     * @return the metrics, or null if metrics are not enabled
+     */
+    public final Metrics metrics() {
+        assert this.conventionHolds();
+        return this.metrics;
     }
 
     @Override
@@ -600,12 +1725,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     private final class SortingMachine5aIterator implements Iterator<T> {
 
         /**
-         * Representation iterator when in insertion mode.
-         */
-        private Iterator<T> queueIterator;
-
-        /**
-         * Representation iterator count when in extraction mode.
+         * Representation iterator count.
          */
         private int arrayCurrentIndex;
 
@@ -613,22 +1733,14 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
          * No-argument constructor.
          */
         private SortingMachine5aIterator() {
-            if (SortingMachine5a.this.insertionMode) {
-                this.queueIterator = SortingMachine5a.this.entries.iterator();
-            } else {
-                this.arrayCurrentIndex = 0;
-            }
+            this.arrayCurrentIndex = SortingMachine5a.this.firstIndex;
             assert SortingMachine5a.this.conventionHolds();
         }
 
         @Override
         public boolean hasNext() {
-            boolean hasNext;
-            if (SortingMachine5a.this.insertionMode) {
-                hasNext = this.queueIterator.hasNext();
-            } else {
-                hasNext = this.arrayCurrentIndex < SortingMachine5a.this.heapSize;
-            }
+            boolean hasNext = this.arrayCurrentIndex < SortingMachine5a.this.firstIndex
+                    + SortingMachine5a.this.heapSize;
             assert SortingMachine5a.this.conventionHolds();
             return hasNext;
         }
@@ -644,13 +1756,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                  */
                 throw new NoSuchElementException();
             }
-            T next;
-            if (SortingMachine5a.this.insertionMode) {
-                next = this.queueIterator.next();
-            } else {
-                next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
-                this.arrayCurrentIndex++;
-            }
+            T next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
             assert SortingMachine5a.this.conventionHolds();
             return next;
         }
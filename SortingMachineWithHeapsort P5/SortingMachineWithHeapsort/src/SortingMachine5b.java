@@ -0,0 +1,691 @@
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as an array of handles (using an
+ * embedding of heap sort) that also works as an indexed priority queue, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * Unlike other {@code SortingMachine}s, this one allows {@code add} in
+ * extraction mode as well as in insertion mode: in extraction mode the new
+ * entry is sifted up into the heap in O(log n), so {@code add} and
+ * {@code removeFirst} may be interleaved freely. Each entry is held by a
+ * {@code Handle} that always knows its own position in the heap, so
+ * {@code insert} can hand that handle back to the caller, who may later
+ * {@code decreaseKey} or {@code remove} that entry in O(log n) without
+ * searching for it. In insertion mode entries are simply appended, as in
+ * {@code SortingMachine5a}, and the heap is built by
+ * {@code changeToExtractionMode}.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of Handle,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete ARITY-ary tree)
+ *   rooted at index start and only through entry stop of a satisfies the
+ *   heap ordering property according to the relation r applied to the
+ *   entries of the handles]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null]  and
+ *    [entry at position i in $this.heap].index = i  and
+ *    [entry at position i in $this.heap].entry is not null)  and
+ * if not $this.insertionMode then
+ *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+ *     [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         [multiset of the entries of the handles in
+ *          $this.heap[0, $this.heapSize)])
+ * </pre>
+ *
+ * @author Roshan Varma & Quantez Merchant
+ *
+ */
+public class SortingMachine5b<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the heap.
+     */
+    private static final int INITIAL_HEAP_LENGTH = 16;
+
+    /**
+     * Number of children of each node in the heap.
+     */
+    private static final int ARITY = 4;
+
+    /**
+     * Index of a handle that is not in any machine.
+     */
+    private static final int REMOVED = -1;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Heap of handles; or handles in the order they were added, in insertion
+     * mode.
+     */
+    private Handle<T>[] heap;
+
+    /**
+     * Heap size.
+     */
+    private int heapSize;
+
+    /**
+     * Handle on an entry of a {@code SortingMachine5b}, for use with
+     * {@code decreaseKey} and {@code remove}.
+     *
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     */
+    public static final class Handle<T> {
+
+        /**
+         * Entry held.
+         */
+        private T entry;
+
+        /**
+         * Position of this handle in the heap, or {@code REMOVED}.
+         */
+        private int index;
+
+        /**
+         * Constructor from entry and position.
+         *
+         * @param entry
+         *            the entry held
+         * @param index
+         *            the position of the handle in the heap
+         */
+        private Handle(T entry, int index) {
+            this.entry = entry;
+            this.index = index;
+        }
+
+        /**
+         * Reports the entry held by this handle.
+         *
+         * @return the entry
+         */
+        public T entry() {
+            return this.entry;
+        }
+
+    }
+
+    /**
+     * Puts {@code h} at position {@code i} of {@code array}, keeping its index
+     * up to date.
+     *
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     * @param array
+     *            the array of handles
+     * @param i
+     *            the position
+     * @param h
+     *            the handle
+     * @updates array, h
+     * @requires 0 <= i < |array|
+     * @ensures array[i] = h  and  h.index = i
+     */
+    private static <T> void place(Handle<T>[] array, int i, Handle<T> h) {
+        array[i] = h;
+        h.index = i;
+    }
+
+    /**
+     * Given an array of handles that represents a complete ARITY-ary tree
+     * that would be a heap except for the handle at {@code child}, sifts that
+     * handle up to turn the whole tree into a heap.
+     *
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     * @param array
+     *            the complete ARITY-ary tree
+     * @param child
+     *            the index of the handle to sift up
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= child < |array|  and
+     * [array would be a heap except for the handle at child, which comes
+     *  before or is equal to all handles in its subtree]
+     * </pre>
+     * @ensures <pre>
+     * [array is a heap]  and  perms(array, #array)  and
+     * [every handle moved has its index updated]
+     * </pre>
+     */
+    private static <T> void siftUp(Handle<T>[] array, int child,
+            Comparator<T> order) {
+        Handle<T> h = array[child];
+        int current = child;
+        boolean done = false;
+        while (current > 0 && !done) {
+            int parent = (current - 1) / ARITY;
+            if (order.compare(h.entry, array[parent].entry) < 0) {
+                //Move the parent down into the hole
+                place(array, current, array[parent]);
+                current = parent;
+            } else {
+                done = true;
+            }
+        }
+        place(array, current, h);
+    }
+
+    /**
+     * Given an array of handles that represents a complete ARITY-ary tree
+     * and an index referring to the root of a subtree that would be a heap
+     * except for its root, sifts the root down to turn that whole subtree
+     * into a heap.
+     *
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     * @param array
+     *            the complete ARITY-ary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last handle in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top <= last < |array|  and
+     * [every child subtree of top is a heap through entry last]
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * [every handle moved has its index updated]
+     * </pre>
+     */
+    private static <T> void siftDown(Handle<T>[] array, int top, int last,
+            Comparator<T> order) {
+        Handle<T> h = array[top];
+        int current = top;
+        boolean done = false;
+        while (!done) {
+            int firstChild = current * ARITY + 1;
+            if (firstChild > last) {
+                done = true;
+            } else {
+                //Find the smallest of the children, which sit next to each
+                //other in the array
+                int lastChild = Math.min(firstChild + ARITY - 1, last);
+                int smallest = firstChild;
+                for (int c = firstChild + 1; c <= lastChild; c++) {
+                    if (order.compare(array[c].entry,
+                            array[smallest].entry) < 0) {
+                        smallest = c;
+                    }
+                }
+                if (order.compare(array[smallest].entry, h.entry) < 0) {
+                    //Move the smallest child up into the hole
+                    place(array, current, array[smallest]);
+                    current = smallest;
+                } else {
+                    done = true;
+                }
+            }
+        }
+        place(array, current, h);
+    }
+
+    /**
+     * Checks if the subtree of the given {@code array} rooted at the given
+     * {@code top} is a heap.
+     *
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     * @param array
+     *            the complete ARITY-ary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last handle in the heap
+     * @param order
+     *            total preorder for sorting
+     * @return true if the subtree of the given {@code array} rooted at the
+     *         given {@code top} is a heap; false otherwise
+     * @requires 0 <= top  and  last < |array|
+     * @ensures <pre>
+     * isHeap = SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method])
+     * </pre>
+     */
+    private static <T> boolean isHeap(Handle<T>[] array, int top, int last,
+            Comparator<T> order) {
+        int firstChild = ARITY * top + 1;
+        int lastChild = Math.min(firstChild + ARITY - 1, last);
+        boolean isHeap = true;
+        for (int child = firstChild; isHeap && child <= lastChild; child++) {
+            isHeap = (order.compare(array[top].entry, array[child].entry) <= 0)
+                    && isHeap(array, child, last, order);
+        }
+        return isHeap;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null]  and
+     *    [entry at position i in $this.heap].index = i  and
+     *    [entry at position i in $this.heap].entry is not null)  and
+     * if not $this.insertionMode then
+     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+     *     [relation computed by $this.machineOrder.compare method])
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        for (int i = 0; i < this.heapSize; i++) {
+            assert this.heap[i] != null && this.heap[i].entry != null : ""
+                    + "Violation of: all handles in $this.heap[0, $this.heapSize)"
+                    + " and their entries are not null";
+            assert this.heap[i].index == i : ""
+                    + "Violation of: [entry at position i in $this.heap].index = i";
+        }
+        assert this.insertionMode || isHeap(this.heap, 0, this.heapSize - 1,
+                this.machineOrder) : ""
+                        + "Violation of: if not $this.insertionMode then"
+                        + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+                        + " [relation computed by $this.machineOrder.compare"
+                        + " method])";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.heapSize = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        /*
+         * With "new Handle<T>[...]" in place of "new Handle<?>[...]" it does
+         * not compile; as shown, it results in a warning about an unchecked
+         * cast, though it cannot fail.
+         */
+        this.heap = (Handle<T>[]) (new Handle<?>[INITIAL_HEAP_LENGTH]);
+        this.heapSize = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine5b(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        //Handles held by callers no longer refer to any entry of this
+        for (int i = 0; i < this.heapSize; i++) {
+            this.heap[i].index = REMOVED;
+        }
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5b<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine5b<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5b<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine5b<T> localSource = (SortingMachine5b<T>) source;
+        for (int i = 0; i < this.heapSize; i++) {
+            this.heap[i].index = REMOVED;
+        }
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.heap = localSource.heap;
+        this.heapSize = localSource.heapSize;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}. Unlike other
+     * {@code SortingMachine}s, {@code this} may be in either mode.
+     *
+     * @param x
+     *            the element to be added
+     * @aliases reference x
+     * @updates this.contents
+     * @ensures this.contents = #this.contents union {x}
+     */
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.insert(x);
+    }
+
+    /**
+     * Adds {@code x} to the contents of {@code this}, in either mode, and
+     * returns a handle on it for use with {@code decreaseKey} and
+     * {@code remove}.
+     *
+     * @param x
+     *            the element to be added
+     * @return the handle on {@code x}
+     * @aliases reference x
+     * @updates this.contents
+     * @ensures <pre>
+     * this.contents = #this.contents union {x}  and
+     * insert.entry = x  and  contains(insert)
+     * </pre>
+     */
+    public final Handle<T> insert(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        //Grow the array if it is full
+        if (this.heapSize == this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, this.heapSize * 2);
+        }
+        Handle<T> h = new Handle<T>(x, this.heapSize);
+        this.heap[this.heapSize] = h;
+        this.heapSize++;
+        //In extraction mode the heap must stay a heap
+        if (!this.insertionMode) {
+            siftUp(this.heap, h.index, this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+        return h;
+    }
+
+    /**
+     * Reports whether {@code h} is a handle on an entry still in {@code this}.
+     *
+     * @param h
+     *            the handle
+     * @return true iff {@code h} is a handle on an entry in {@code this}
+     * @ensures <pre>
+     * contains = [h was returned by insert on this and its entry has not
+     *             been removed since]
+     * </pre>
+     */
+    public final boolean contains(Handle<T> h) {
+        assert h != null : "Violation of: h is not null";
+
+        boolean contains = 0 <= h.index && h.index < this.heapSize
+                && this.heap[h.index] == h;
+
+        assert this.conventionHolds();
+        return contains;
+    }
+
+    /**
+     * Replaces the entry held by {@code h} with {@code x}, which must not come
+     * after it.
+     *
+     * @param h
+     *            the handle on the entry to replace
+     * @param x
+     *            the new entry
+     * @aliases reference x
+     * @updates this.contents
+     * @requires <pre>
+     * contains(h)  and
+     * [relation computed by this.order.compare method](x, h.entry)
+     * </pre>
+     * @ensures <pre>
+     * this.contents = (#this.contents \ {#h.entry}) union {x}  and
+     * h.entry = x
+     * </pre>
+     */
+    public final void decreaseKey(Handle<T> h, T x) {
+        assert h != null : "Violation of: h is not null";
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(h) : "Violation of: contains(h)";
+        assert this.machineOrder.compare(x, h.entry) <= 0 : ""
+                + "Violation of: [relation computed by this.order.compare"
+                + " method](x, h.entry)";
+
+        h.entry = x;
+        if (!this.insertionMode) {
+            siftUp(this.heap, h.index, this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes the entry held by {@code h} from {@code this}, in either mode,
+     * and returns it.
+     *
+     * @param h
+     *            the handle on the entry to remove
+     * @return the entry removed
+     * @updates this.contents
+     * @requires contains(h)
+     * @ensures <pre>
+     * remove = #h.entry  and
+     * this.contents = #this.contents \ {#h.entry}  and
+     * not contains(h)
+     * </pre>
+     */
+    public final T remove(Handle<T> h) {
+        assert h != null : "Violation of: h is not null";
+        assert this.contains(h) : "Violation of: contains(h)";
+
+        int i = h.index;
+        this.heapSize--;
+        Handle<T> last = this.heap[this.heapSize];
+        this.heap[this.heapSize] = null;
+        h.index = REMOVED;
+        if (last != h) {
+            //Fill the hole with the last handle, then move it into place
+            place(this.heap, i, last);
+            if (!this.insertionMode) {
+                siftUp(this.heap, i, this.machineOrder);
+                siftDown(this.heap, last.index, this.heapSize - 1,
+                        this.machineOrder);
+            }
+        }
+
+        assert this.conventionHolds();
+        return h.entry;
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Turn the handles into a heap in place, bottom up, starting from the
+        //last node with a child (none if there are fewer than two handles)
+        int lastParent = (this.heapSize + ARITY - 2) / ARITY - 1;
+        for (int i = lastParent; i >= 0; i--) {
+            siftDown(this.heap, i, this.heapSize - 1, this.machineOrder);
+        }
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T first = this.remove(this.heap[0]);
+
+        assert this.conventionHolds();
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.heapSize;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5bIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5b}.
+     */
+    private final class SortingMachine5bIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5bIterator() {
+            this.arrayCurrentIndex = 0;
+            assert SortingMachine5b.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.arrayCurrentIndex < SortingMachine5b.this.heapSize;
+            assert SortingMachine5b.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine5b.this.heap[this.arrayCurrentIndex].entry;
+            this.arrayCurrentIndex++;
+            assert SortingMachine5b.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,1028 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that keeps at most a given number of entries in
+ * memory, spilling sorted runs to temporary files (external merge sort), with
+ * implementations of primary methods.
+ *
+ * <p>
+ * While in insertion mode, entries are added to a {@code SortingMachine5a}
+ * that generates the runs: whenever it holds {@code runCapacity} entries, its
+ * heap is drained in order into a new temporary file. When changing to
+ * extraction mode the remaining entries become the last run and every run is
+ * opened for a k-way merge, reading through buffered channels; each
+ * {@code removeFirst} then takes the smallest head among the runs in
+ * O(log k). If more than {@code MAX_FAN_IN} runs were spilled, groups of them
+ * are first merged into longer runs so the number of files open at once stays
+ * bounded. If nothing was ever spilled, the machine simply sorts in memory.
+ * </p>
+ *
+ * <p>
+ * Run files are deleted as soon as they have been read through, and by
+ * {@code clear} and {@code transferFrom} for the value being discarded. A
+ * machine that is no longer needed while it still holds spilled entries should
+ * be cleared, or its run files are left behind in the temporary directory.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * RUN_ENTRIES (
+ *   run: Run
+ *  ) : finite multiset of T is
+ *  [the multiset of the last run.unread entries written to run.file]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * $this.runCapacity > 0  and
+ * [the entries written to each run's file are in non-decreasing order
+ *  according to the relation computed by $this.machineOrder.compare method]  and
+ * if $this.insertionMode then
+ *   $this.buffer.insertion_mode  and
+ *   |$this.buffer.contents| < $this.runCapacity  and
+ *   [no run in $this.runs is open for reading]  and
+ *   $this.size = |$this.buffer.contents| +
+ *     [sum of |RUN_ENTRIES(run)| over all runs in $this.runs]
+ * else if $this.runs = <> then
+ *   not $this.buffer.insertion_mode  and
+ *   $this.size = |$this.buffer.contents|
+ * else
+ *   $this.buffer = (true, $this.machineOrder, {})  and
+ *   [every run in $this.runs is open for reading, has unread > 0, and its
+ *    head is the first of its RUN_ENTRIES]  and
+ *   [$this.runs is a binary heap ordered by the heads of the runs according
+ *    to the relation computed by $this.machineOrder.compare method]  and
+ *   $this.size = [sum of |RUN_ENTRIES(run)| over all runs in $this.runs]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         $this.buffer.contents union
+ *           [union of RUN_ENTRIES(run) over all runs in $this.runs])
+ * </pre>
+ *
+ * @author Roshan Varma & Quantez Merchant
+ *
+ */
+public class SortingMachine6<T extends Serializable>
+        extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Maximum number of runs merged at the same time.
+     */
+    private static final int MAX_FAN_IN = 128;
+
+    /**
+     * Size in bytes of the buffer used to read or write each run.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Number of entries written to a run between resets of the object stream,
+     * so the stream does not hold on to every entry it has written; reading a
+     * run can start afresh at each reset.
+     */
+    private static final int RESET_INTERVAL = 1024;
+
+    /**
+     * {@code ObjectInputStream} that starts reading a run's file at a reset
+     * point rather than at the start, so it does not expect a stream header.
+     */
+    private static final class ResumedObjectInputStream
+            extends ObjectInputStream {
+
+        /**
+         * Constructor from a stream positioned at a reset point.
+         *
+         * @param in
+         *            the stream to read from
+         * @throws IOException
+         *             if reading from in fails
+         */
+        private ResumedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected void readStreamHeader() {
+            //The header is before the reset point, so there is none to read
+        }
+
+    }
+
+    /**
+     * A sorted run of entries spilled to a temporary file.
+     */
+    private final class Run {
+
+        /**
+         * Temporary file holding the entries of the run.
+         */
+        private Path file;
+
+        /**
+         * Number of entries written to the file.
+         */
+        private int length;
+
+        /**
+         * Byte offsets in the file of the entries written right after each
+         * reset of the object stream: the one at position i is that of the
+         * entry at position i * RESET_INTERVAL.
+         */
+        private ArrayList<Long> resetOffsets;
+
+        /**
+         * Channel the entries are written through, while the run is being
+         * written.
+         */
+        private FileChannel channel;
+
+        /**
+         * Number of entries of the run not yet removed, including the head.
+         */
+        private int unread;
+
+        /**
+         * Stream the entries are read from, once the run is open for reading.
+         */
+        private ObjectInputStream in;
+
+        /**
+         * First entry of the run not yet removed, once the run is open for
+         * reading.
+         */
+        private T head;
+
+    }
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Maximum number of entries kept in memory while in insertion mode.
+     */
+    private int runCapacity;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries not yet spilled to a run.
+     */
+    private SortingMachine5a<T> buffer;
+
+    /**
+     * Runs spilled so far; in extraction mode, a binary heap of the open runs.
+     */
+    private ArrayList<Run> runs;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Opens a new, empty temporary file for writing a run.
+     *
+     * @param run
+     *            the run whose file is created
+     * @return the stream writing to the run's file
+     * @updates run
+     * @ensures <pre>
+     * run.file = [a new empty temporary file]  and  run.length = 0  and
+     * run.resetOffsets = <[offset of the first entry]>  and
+     * [openRunForWriting writes to run.file through run.channel]
+     * </pre>
+     */
+    private static ObjectOutputStream openRunForWriting(
+            SortingMachine6<?>.Run run) {
+        Path file;
+        try {
+            file = Files.createTempFile("sortingmachine", ".run");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel),
+                            BUFFER_SIZE));
+            out.flush();
+            run.file = file;
+            run.length = 0;
+            run.resetOffsets = new ArrayList<Long>();
+            run.resetOffsets.add(channel.position());
+            run.channel = channel;
+            return out;
+        } catch (IOException e) {
+            //Do not leave the channel open or the file behind
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                Files.deleteIfExists(file);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes {@code x} as the next entry of {@code run}.
+     *
+     * @param run
+     *            the run being written
+     * @param out
+     *            the stream writing to the run's file
+     * @param x
+     *            the entry to write
+     * @updates run, out
+     * @ensures <pre>
+     * run.length = #run.length + 1  and  [x is written to run.file]  and
+     * if run.length mod RESET_INTERVAL = 0 then
+     *   run.resetOffsets = #run.resetOffsets * <[offset of the next entry]>
+     * </pre>
+     */
+    private static void writeEntry(SortingMachine6<?>.Run run,
+            ObjectOutputStream out, Object x) {
+        try {
+            out.writeObject(x);
+            run.length++;
+            //Let go of the entries written so far every so often, recording
+            //where the next entry starts so reading can resume there
+            if (run.length % RESET_INTERVAL == 0) {
+                out.reset();
+                out.flush();
+                run.resetOffsets.add(run.channel.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finishes writing {@code run}, closing {@code out}.
+     *
+     * @param run
+     *            the run being written
+     * @param out
+     *            the stream writing to the run's file
+     * @updates run, out
+     * @ensures [out is closed]  and  run.channel = null
+     */
+    private static void closeRunForWriting(SortingMachine6<?>.Run run,
+            ObjectOutputStream out) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.channel = null;
+    }
+
+    /**
+     * Opens a stream reading the entries of {@code run} from the one at
+     * {@code position}. Reading starts at the last reset point at or before
+     * that entry, so fewer than {@code RESET_INTERVAL} entries are read and
+     * dropped to get there.
+     *
+     * @param run
+     *            the run to read
+     * @param position
+     *            the position of the first entry to read
+     * @return the stream reading from the run's file
+     * @requires 0 <= position < run.length
+     * @ensures [openRunForReading reads run.file from the entry at position]
+     */
+    private static ObjectInputStream openRunForReading(
+            SortingMachine6<?>.Run run, int position) {
+        int reset = position / RESET_INTERVAL;
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(run.file, StandardOpenOption.READ);
+            channel.position(run.resetOffsets.get(reset));
+            ObjectInputStream in = new ResumedObjectInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel),
+                            BUFFER_SIZE));
+            for (int i = reset * RESET_INTERVAL; i < position; i++) {
+                readEntry(in);
+            }
+            return in;
+        } catch (IOException e) {
+            closeAfterFailure(channel, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeAfterFailure(channel, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes {@code channel}, if any, after {@code e} was thrown while
+     * opening a run for reading.
+     *
+     * @param channel
+     *            the channel to close, or null
+     * @param e
+     *            the exception thrown
+     * @updates e
+     * @ensures <pre>
+     * [channel is closed, if not null]  and
+     * [any exception thrown closing it is added to e as suppressed]
+     * </pre>
+     */
+    private static void closeAfterFailure(FileChannel channel, Exception e) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        }
+    }
+
+    /**
+     * Reads the next entry from {@code in}.
+     *
+     * @param <T>
+     *            type of the entry
+     * @param in
+     *            the stream reading a run's file
+     * @return the entry read
+     * @updates in
+     * @requires [in has an entry left to read]
+     * @ensures readEntry = [next entry read from in]
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T readEntry(ObjectInputStream in) {
+        try {
+            return (T) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(
+                    "Cannot read back entry of a run file", e);
+        }
+    }
+
+    /**
+     * Closes {@code run}'s stream, if any, and deletes its file.
+     *
+     * @param run
+     *            the run to discard
+     * @updates run
+     * @ensures run.in = null  and  run.head = null  and  run.unread = 0
+     */
+    private static void deleteRun(SortingMachine6<?>.Run run) {
+        try {
+            if (run.in != null) {
+                run.in.close();
+            }
+            Files.deleteIfExists(run.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.in = null;
+        run.head = null;
+        run.unread = 0;
+    }
+
+    /**
+     * Opens {@code run} for reading and reads its head.
+     *
+     * @param run
+     *            the run to open
+     * @updates run
+     * @requires run.length > 0
+     * @ensures <pre>
+     * run.unread = run.length  and
+     * run.head = [first entry written to run.file]  and
+     * [run.in reads run.file from its second entry]
+     * </pre>
+     */
+    private void openRun(Run run) {
+        run.in = openRunForReading(run, 0);
+        run.unread = run.length;
+        run.head = readEntry(run.in);
+    }
+
+    /**
+     * Moves {@code run} past its head, discarding the run once it has been
+     * read through.
+     *
+     * @param run
+     *            the open run to advance
+     * @updates run
+     * @requires run.unread > 0
+     * @ensures <pre>
+     * run.unread = #run.unread - 1  and
+     * if run.unread > 0 then run.head = [next entry read from run.in]
+     * else [run.file is deleted]
+     * </pre>
+     */
+    private void advanceRun(Run run) {
+        run.unread--;
+        if (run.unread > 0) {
+            run.head = readEntry(run.in);
+        } else {
+            deleteRun(run);
+        }
+    }
+
+    /**
+     * Given a list of open runs that would be a binary heap (ordered by the
+     * heads of the runs) except for its entry at {@code top}, sifts that run
+     * down to turn the whole list into a heap.
+     *
+     * @param heap
+     *            the list of runs
+     * @param top
+     *            the index of the run to sift down
+     * @updates heap
+     * @requires <pre>
+     * 0 <= top < |heap|  and
+     * [heap would be a heap ordered by the heads of the runs except for the
+     *  run at top]
+     * </pre>
+     * @ensures <pre>
+     * [heap is a heap ordered by the heads of the runs]  and
+     * perms(heap, #heap)
+     * </pre>
+     */
+    private void siftDownRun(ArrayList<Run> heap, int top) {
+        int current = top;
+        int last = heap.size() - 1;
+        boolean done = false;
+        while (!done) {
+            int left = 2 * current + 1;
+            int right = left + 1;
+            int smallest = current;
+            if (left <= last && this.machineOrder.compare(heap.get(left).head,
+                    heap.get(smallest).head) < 0) {
+                smallest = left;
+            }
+            if (right <= last && this.machineOrder.compare(heap.get(right).head,
+                    heap.get(smallest).head) < 0) {
+                smallest = right;
+            }
+            if (smallest == current) {
+                done = true;
+            } else {
+                heap.set(smallest, heap.set(current, heap.get(smallest)));
+                current = smallest;
+            }
+        }
+    }
+
+    /**
+     * Opens every run in {@code heap} and arranges them into a binary heap
+     * ordered by their heads.
+     *
+     * @param heap
+     *            the list of runs
+     * @updates heap
+     * @requires [no run in heap is open for reading and each has length > 0]
+     * @ensures <pre>
+     * [every run in heap is open for reading with its head read]  and
+     * [heap is a heap ordered by the heads of the runs]  and
+     * perms(heap, #heap)
+     * </pre>
+     */
+    private void openRunHeap(ArrayList<Run> heap) {
+        for (Run run : heap) {
+            this.openRun(run);
+        }
+        for (int i = heap.size() / 2 - 1; i >= 0; i--) {
+            this.siftDownRun(heap, i);
+        }
+    }
+
+    /**
+     * Removes and returns the smallest head among the open runs in
+     * {@code heap}, restoring the heap afterwards.
+     *
+     * @param heap
+     *            the binary heap of open runs
+     * @return the smallest head
+     * @updates heap
+     * @requires |heap| > 0
+     * @ensures <pre>
+     * removeFirstRunHead = [head of the first run in #heap]  and
+     * [that run is advanced, and dropped from heap if read through]  and
+     * [heap is a heap ordered by the heads of the runs]
+     * </pre>
+     */
+    private T removeFirstRunHead(ArrayList<Run> heap) {
+        Run first = heap.get(0);
+        T x = first.head;
+        this.advanceRun(first);
+        if (first.unread == 0) {
+            //Replace the run that was read through with the last one
+            Run lastRun = heap.remove(heap.size() - 1);
+            if (lastRun != first) {
+                heap.set(0, lastRun);
+            }
+        }
+        if (heap.size() > 0) {
+            this.siftDownRun(heap, 0);
+        }
+        return x;
+    }
+
+    /**
+     * Drains the entries in {@code this.buffer} into a new run at the end of
+     * {@code this.runs}.
+     *
+     * @updates this.buffer, this.runs
+     * @requires <pre>
+     * this.buffer.insertion_mode  and  |this.buffer.contents| > 0
+     * </pre>
+     * @ensures <pre>
+     * this.buffer = (true, this.machineOrder, {})  and
+     * this.runs = #this.runs * <[a run with the entries of #this.buffer]>
+     * </pre>
+     */
+    private void spillBuffer() {
+        Run run = new Run();
+        ObjectOutputStream out = openRunForWriting(run);
+        this.buffer.changeToExtractionMode();
+        while (this.buffer.size() > 0) {
+            writeEntry(run, out, this.buffer.removeFirst());
+        }
+        closeRunForWriting(run, out);
+        this.buffer.clear();
+        this.runs.add(run);
+    }
+
+    /**
+     * Merges the first {@code MAX_FAN_IN} runs of {@code this.runs} into a
+     * single new run at the end of {@code this.runs}.
+     *
+     * @updates this.runs
+     * @requires |this.runs| > MAX_FAN_IN
+     * @ensures <pre>
+     * this.runs = #this.runs[MAX_FAN_IN, |#this.runs|) *
+     *   <[a run with the entries of #this.runs[0, MAX_FAN_IN)]>
+     * </pre>
+     */
+    private void mergeFirstRuns() {
+        ArrayList<Run> group = new ArrayList<Run>(
+                this.runs.subList(0, MAX_FAN_IN));
+        this.runs.subList(0, MAX_FAN_IN).clear();
+        this.openRunHeap(group);
+        Run merged = new Run();
+        ObjectOutputStream out = openRunForWriting(merged);
+        while (group.size() > 0) {
+            writeEntry(merged, out, this.removeFirstRunHead(group));
+        }
+        closeRunForWriting(merged, out);
+        this.runs.add(merged);
+    }
+
+    /**
+     * Deletes the files of all runs in {@code this.runs}.
+     *
+     * @updates this.runs
+     * @ensures [the files of all runs in #this.runs are deleted]
+     */
+    private void deleteRuns() {
+        for (Run run : this.runs) {
+            deleteRun(run);
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.runCapacity > 0  and
+     * if $this.insertionMode then
+     *   $this.buffer.insertion_mode  and
+     *   |$this.buffer.contents| < $this.runCapacity  and
+     *   [no run in $this.runs is open for reading]  and
+     *   $this.size = |$this.buffer.contents| +
+     *     [sum of |RUN_ENTRIES(run)| over all runs in $this.runs]
+     * else if $this.runs = <> then
+     *   not $this.buffer.insertion_mode  and
+     *   $this.size = |$this.buffer.contents|
+     * else
+     *   $this.buffer = (true, $this.machineOrder, {})  and
+     *   [every run in $this.runs is open for reading, has unread > 0]  and
+     *   $this.size = [sum of |RUN_ENTRIES(run)| over all runs in $this.runs]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.runCapacity > 0 : "Violation of: $this.runCapacity > 0";
+        int total = 0;
+        if (this.insertionMode) {
+            assert this.buffer.isInInsertionMode() : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.buffer.insertion_mode";
+            assert this.buffer.size() < this.runCapacity : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " |$this.buffer.contents| < $this.runCapacity";
+            total = this.buffer.size();
+            for (Run run : this.runs) {
+                assert run.in == null : ""
+                        + "Violation of: if $this.insertionMode then"
+                        + " [no run in $this.runs is open for reading]";
+                total += run.length;
+            }
+        } else if (this.runs.size() == 0) {
+            assert !this.buffer.isInInsertionMode() : ""
+                    + "Violation of: if not $this.insertionMode and"
+                    + " $this.runs = <> then not $this.buffer.insertion_mode";
+            total = this.buffer.size();
+        } else {
+            assert this.buffer.isInInsertionMode()
+                    && this.buffer.size() == 0 : ""
+                            + "Violation of: if not $this.insertionMode and"
+                            + " $this.runs /= <> then"
+                            + " $this.buffer = (true, $this.machineOrder, {})";
+            for (Run run : this.runs) {
+                assert run.in != null && run.unread > 0 : ""
+                        + "Violation of: [every run in $this.runs is open"
+                        + " for reading, has unread > 0]";
+                total += run.unread;
+            }
+        }
+        assert this.size == total : ""
+                + "Violation of: $this.size = [number of entries in"
+                + " $this.buffer and $this.runs]";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param runCapacity
+     *            maximum number of entries kept in memory
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * runCapacity > 0
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.runCapacity = runCapacity  and
+     * $this.buffer = (true, order, {})  and
+     * $this.runs = <>  and
+     * $this.size = 0
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order, int runCapacity) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.runCapacity = runCapacity;
+        this.buffer = new SortingMachine5a<T>(order);
+        this.runs = new ArrayList<Run>();
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and run capacity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param runCapacity
+     *            maximum number of entries kept in memory while in insertion
+     *            mode, and so the length of each spilled run
+     * @requires runCapacity > 0
+     */
+    public SortingMachine6(Comparator<T> order, int runCapacity) {
+        assert runCapacity > 0 : "Violation of: runCapacity > 0";
+        this.createNewRep(order, runCapacity);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    int.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.runCapacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.deleteRuns();
+        this.createNewRep(this.machineOrder, this.runCapacity);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine6<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine6<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine6<T> localSource = (SortingMachine6<T>) source;
+        this.deleteRuns();
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.runCapacity = localSource.runCapacity;
+        this.buffer = localSource.buffer;
+        this.runs = localSource.runs;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.runCapacity);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.buffer.add(x);
+        this.size++;
+        //Spill the buffer as a sorted run once it is full
+        if (this.buffer.size() == this.runCapacity) {
+            this.spillBuffer();
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.runs.size() == 0) {
+            //Nothing was spilled, so sort in memory
+            this.buffer.changeToExtractionMode();
+        } else {
+            //The entries left in the buffer make up the last run
+            if (this.buffer.size() > 0) {
+                this.spillBuffer();
+            }
+            //Merge groups of runs until few enough are left to merge at once
+            while (this.runs.size() > MAX_FAN_IN) {
+                this.mergeFirstRuns();
+            }
+            this.openRunHeap(this.runs);
+        }
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T first;
+        if (this.runs.size() == 0) {
+            first = this.buffer.removeFirst();
+        } else {
+            first = this.removeFirstRunHead(this.runs);
+            //Once every run is read through, fall back to the empty buffer
+            if (this.runs.size() == 0) {
+                this.buffer.changeToExtractionMode();
+            }
+        }
+        this.size--;
+
+        assert this.conventionHolds();
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine6}. Entries in runs are read back from the runs'
+     * files, a chunk of at most {@code max(runCapacity, RESET_INTERVAL)}
+     * entries at a time, each time resuming from the last reset point before
+     * them; since a chunk is at least as long as the distance between reset
+     * points, reading a run this way takes time linear in its length. Each
+     * file is closed again before the entries read are returned, so an
+     * iterator that is abandoned part way through does not keep a file open.
+     */
+    private final class SortingMachine6Iterator implements Iterator<T> {
+
+        /**
+         * Iterator over the entries in the buffer.
+         */
+        private Iterator<T> bufferIterator;
+
+        /**
+         * Index in {@code runs} of the run being read.
+         */
+        private int runIndex;
+
+        /**
+         * Number of entries of the run being read already read from its file,
+         * including those skipped because they were removed.
+         */
+        private int read;
+
+        /**
+         * Iterator over the entries last read from the run being read.
+         */
+        private Iterator<T> chunkIterator;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine6Iterator() {
+            this.bufferIterator = SortingMachine6.this.buffer.iterator();
+            this.runIndex = 0;
+            this.read = 0;
+            this.chunkIterator = new ArrayList<T>().iterator();
+            assert SortingMachine6.this.conventionHolds();
+        }
+
+        /**
+         * Reads the next entries of {@code run} not yet returned, at most
+         * {@code max(runCapacity, RESET_INTERVAL)} of them, closing the run's
+         * file before returning.
+         *
+         * @param run
+         *            the run being read
+         * @updates this
+         * @requires this.read < run.length
+         * @ensures <pre>
+         * [this.chunkIterator iterates over the entries of run at positions
+         *  [max(#this.read, removed), this.read) of its file, where removed is
+         *  the number of entries of run already removed]  and
+         * this.read = min(run.length, max(#this.read, removed) +
+         *   max(SortingMachine6.this.runCapacity, RESET_INTERVAL))
+         * </pre>
+         */
+        private void readChunk(Run run) {
+            int removed = 0;
+            if (!SortingMachine6.this.insertionMode) {
+                removed = run.length - run.unread;
+            }
+            int first = Math.max(this.read, removed);
+            int chunkLength = Math.max(SortingMachine6.this.runCapacity,
+                    RESET_INTERVAL);
+            int last = Math.min(run.length, first + chunkLength);
+            ArrayList<T> chunk = new ArrayList<T>(last - first);
+            try (ObjectInputStream in = openRunForReading(run, first)) {
+                for (int i = first; i < last; i++) {
+                    chunk.add(SortingMachine6.<T> readEntry(in));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.chunkIterator = chunk.iterator();
+            this.read = last;
+        }
+
+        /**
+         * Reads entries from the runs until one has not yet been returned, if
+         * there is one.
+         *
+         * @updates this
+         * @ensures <pre>
+         * this.chunkIterator.hasNext()  or
+         * this.runIndex = |SortingMachine6.this.runs|
+         * </pre>
+         */
+        private void findUnseenEntry() {
+            ArrayList<Run> allRuns = SortingMachine6.this.runs;
+            while (!this.chunkIterator.hasNext()
+                    && this.runIndex < allRuns.size()) {
+                Run run = allRuns.get(this.runIndex);
+                if (this.read < run.length) {
+                    this.readChunk(run);
+                }
+                if (!this.chunkIterator.hasNext()) {
+                    //The run is read through, so move on to the next one
+                    this.runIndex++;
+                    this.read = 0;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.bufferIterator.hasNext();
+            if (!hasNext) {
+                this.findUnseenEntry();
+                hasNext = this.chunkIterator.hasNext();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next;
+            if (this.bufferIterator.hasNext()) {
+                next = this.bufferIterator.next();
+            } else {
+                next = this.chunkIterator.next();
+            }
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,454 @@
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} ordered by a {@code long} key computed from each
+ * entry, represented as a pair of arrays sorted by LSD radix sort, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * The key of each entry is computed once, when the entry is added, and kept
+ * in a {@code long[]} next to the entry. {@code changeToExtractionMode} then
+ * sorts both arrays together with a least-significant-digit radix sort, one
+ * byte per pass, skipping any pass in which all keys share the same byte; no
+ * key is ever boxed and no comparator is ever called. {@code removeFirst}
+ * hands out the sorted entries from a cursor in O(1). Entries with equal keys
+ * are removed in the order they were added.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * $this.machineOrder = [order comparing the keys computed by $this.key]  and
+ * if $this.insertionMode then $this.firstIndex = 0  and
+ * 0 <= $this.firstIndex  and  0 <= $this.size  and
+ * $this.firstIndex + $this.size <= |$this.entries| = |$this.keys|  and
+ * for all i: integer
+ *     where ($this.firstIndex <= i  and  i < $this.firstIndex + $this.size)
+ *   ([entry at position i in $this.entries is not null]  and
+ *    [entry at position i in $this.keys] =
+ *      [key computed by $this.key for entry at position i in $this.entries])  and
+ * if not $this.insertionMode then
+ *   [entries in $this.keys[$this.firstIndex, $this.firstIndex + $this.size)
+ *    are in non-decreasing order]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.firstIndex,
+ *                                        $this.firstIndex + $this.size)))
+ * </pre>
+ *
+ * @author Roshan Varma & Quantez Merchant
+ *
+ */
+public class SortingMachine7<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the arrays.
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Number of bits in each digit of the radix sort.
+     */
+    private static final int DIGIT_BITS = 8;
+
+    /**
+     * Number of distinct digits.
+     */
+    private static final int RADIX = 1 << DIGIT_BITS;
+
+    /**
+     * Function computing the key of an entry.
+     */
+    private ToLongFunction<T> key;
+
+    /**
+     * Order, comparing the keys of entries.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries; sorted by key in extraction mode.
+     */
+    private T[] entries;
+
+    /**
+     * Keys of the entries at the same positions in {@code entries}.
+     */
+    private long[] keys;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Index of the first entry in extraction mode.
+     */
+    private int firstIndex;
+
+    /**
+     * Sorts {@code array[0, length)} and {@code keys[0, length)} together by
+     * key, keeping entries with equal keys in their original relative order.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array of entries
+     * @param keys
+     *            the keys of the entries
+     * @param length
+     *            the number of entries to sort
+     * @updates array, keys
+     * @requires 0 <= length <= min(|array|, |keys|)
+     * @ensures <pre>
+     * [keys[0, length) are in non-decreasing order]  and
+     * [each entry of array[0, length) is at the same position as its key]  and
+     * [entries of array[0, length) with equal keys are in the same relative
+     *  order as in #array]  and
+     * perms(array[0, length), #array[0, length))
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void radixSort(T[] array, long[] keys, int length) {
+        T[] otherArray = (T[]) (new Object[length]);
+        long[] otherKeys = new long[length];
+        int[] count = new int[RADIX];
+        T[] fromArray = array;
+        long[] fromKeys = keys;
+        T[] toArray = otherArray;
+        long[] toKeys = otherKeys;
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            //Count the entries with each digit; flipping the sign bit makes
+            //negative keys come before non-negative ones
+            Arrays.fill(count, 0);
+            for (int i = 0; i < length; i++) {
+                count[digit(fromKeys[i], shift)]++;
+            }
+            //A pass in which every key has the same digit changes nothing
+            if (length > 0 && count[digit(fromKeys[0], shift)] < length) {
+                //Turn the counts into the starting position of each digit
+                int start = 0;
+                for (int d = 0; d < RADIX; d++) {
+                    int c = count[d];
+                    count[d] = start;
+                    start += c;
+                }
+                for (int i = 0; i < length; i++) {
+                    int position = count[digit(fromKeys[i], shift)]++;
+                    toArray[position] = fromArray[i];
+                    toKeys[position] = fromKeys[i];
+                }
+                T[] tempArray = fromArray;
+                fromArray = toArray;
+                toArray = tempArray;
+                long[] tempKeys = fromKeys;
+                fromKeys = toKeys;
+                toKeys = tempKeys;
+            }
+        }
+        //Copy back if the last pass left the sorted entries in the copies
+        if (fromArray != array) {
+            System.arraycopy(fromArray, 0, array, 0, length);
+            System.arraycopy(fromKeys, 0, keys, 0, length);
+        }
+    }
+
+    /**
+     * Returns the digit of {@code k} (with its sign bit flipped) starting at
+     * bit {@code shift}.
+     *
+     * @param k
+     *            the key
+     * @param shift
+     *            the position of the lowest bit of the digit
+     * @return the digit
+     * @requires 0 <= shift < 64
+     * @ensures <pre>
+     * digit = [bits shift through shift + DIGIT_BITS - 1 of
+     *          k + 2^63 (mod 2^64)]
+     * </pre>
+     */
+    private static int digit(long k, int shift) {
+        return (int) (((k ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1));
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * if $this.insertionMode then $this.firstIndex = 0  and
+     * 0 <= $this.firstIndex  and  0 <= $this.size  and
+     * $this.firstIndex + $this.size <= |$this.entries| = |$this.keys|  and
+     * for all i: integer
+     *     where ($this.firstIndex <= i  and  i < $this.firstIndex + $this.size)
+     *   ([entry at position i in $this.entries is not null])  and
+     * if not $this.insertionMode then
+     *   [entries in $this.keys[$this.firstIndex, $this.firstIndex + $this.size)
+     *    are in non-decreasing order]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert !this.insertionMode || this.firstIndex == 0 : ""
+                + "Violation of: if $this.insertionMode then $this.firstIndex = 0";
+        assert 0 <= this.firstIndex : "Violation of: 0 <= $this.firstIndex";
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.entries.length == this.keys.length : ""
+                + "Violation of: |$this.entries| = |$this.keys|";
+        assert this.firstIndex + this.size <= this.entries.length : ""
+                + "Violation of: $this.firstIndex + $this.size <= |$this.entries|";
+        int end = this.firstIndex + this.size;
+        for (int i = this.firstIndex; i < end; i++) {
+            assert this.entries[i] != null : ""
+                    + "Violation of: all entries in $this.entries[$this.firstIndex,"
+                    + " $this.firstIndex + $this.size) are not null";
+            assert this.insertionMode || i == this.firstIndex
+                    || this.keys[i - 1] <= this.keys[i] : ""
+                            + "Violation of: if not $this.insertionMode then"
+                            + " [entries in $this.keys[$this.firstIndex,"
+                            + " $this.firstIndex + $this.size) are in"
+                            + " non-decreasing order]";
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param key
+     *            function computing the key of an entry
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.key = key  and
+     * $this.machineOrder = [order comparing the keys computed by key]  and
+     * $this.size = 0  and
+     * $this.firstIndex = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(ToLongFunction<T> key) {
+        this.insertionMode = true;
+        this.key = key;
+        this.machineOrder = Comparator.comparingLong(key);
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.entries = (T[]) (new Object[INITIAL_LENGTH]);
+        this.keys = new long[INITIAL_LENGTH];
+        this.size = 0;
+        this.firstIndex = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from key function. The resulting machine orders entries by
+     * the {@code long} that {@code key} computes from them.
+     *
+     * @param key
+     *            function computing the key of an entry
+     * @requires [key computes the same key each time it is applied to an
+     *           entry]
+     */
+    public SortingMachine7(ToLongFunction<T> key) {
+        assert key != null : "Violation of: key is not null";
+        this.createNewRep(key);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass()
+                    .getConstructor(ToLongFunction.class);
+            return (SortingMachine<T>) c.newInstance(this.key);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.key);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine7<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine7<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine7<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine7<T> localSource = (SortingMachine7<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.key = localSource.key;
+        this.machineOrder = localSource.machineOrder;
+        this.entries = localSource.entries;
+        this.keys = localSource.keys;
+        this.size = localSource.size;
+        this.firstIndex = localSource.firstIndex;
+        localSource.createNewRep(localSource.key);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Grow the arrays if they are full
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, this.size * 2);
+            this.keys = Arrays.copyOf(this.keys, this.size * 2);
+        }
+        //Put the incoming value and its key at the end
+        this.entries[this.size] = x;
+        this.keys[this.size] = this.key.applyAsLong(x);
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        radixSort(this.entries, this.keys, this.size);
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //Take the entry at the cursor and move the cursor past it
+        T first = this.entries[this.firstIndex];
+        this.entries[this.firstIndex] = null;
+        this.firstIndex++;
+        this.size--;
+
+        assert this.conventionHolds();
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine7Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine7}.
+     */
+    private final class SortingMachine7Iterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine7Iterator() {
+            this.arrayCurrentIndex = SortingMachine7.this.firstIndex;
+            assert SortingMachine7.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.arrayCurrentIndex < SortingMachine7.this.firstIndex
+                    + SortingMachine7.this.size;
+            assert SortingMachine7.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine7.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine7.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,586 @@
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that several threads may {@code add} to at once,
+ * represented as one buffer per adding thread merged with a loser tree, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * While in insertion mode, each thread appends its entries to a buffer of its
+ * own (looked up by thread in a {@code ConcurrentHashMap} belonging to the
+ * machine), so {@code add} takes no lock and producers never contend with each
+ * other; the only shared step is registering a thread's buffer the first time
+ * that thread adds. {@code changeToExtractionMode} then sorts all buffers in
+ * parallel and {@code removeFirst} merges them with a loser tree, which finds
+ * the next entry with one comparison per level, about log k comparisons for k
+ * buffers. The map is emptied by {@code changeToExtractionMode} and dropped by
+ * {@code clear}, so threads that outlive the machine, such as those of a pool,
+ * do not keep its entries reachable.
+ * </p>
+ *
+ * <p>
+ * Only {@code add} may be called concurrently. Every other method, including
+ * {@code changeToExtractionMode}, must be called by a single thread after all
+ * calls to {@code add} have completed and are visible to it, for instance
+ * after joining the producer threads or awaiting termination of their
+ * executor.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * if $this.insertionMode then
+ *   [every buffer that is a value of $this.buffers has
+ *    0 <= length <= |entries| and no null entries in entries[0, length)]
+ * else
+ *   $this.buffers = {}  and
+ *   [every buffer in $this.runs has 0 <= length <= |entries|]  and
+ *   |$this.cursors| = |$this.runs|  and
+ *   for all r: integer where (0 <= r < |$this.runs|)
+ *     (0 <= $this.cursors[r] <= $this.runs[r].length  and
+ *      [entries in $this.runs[r].entries[$this.cursors[r],
+ *        $this.runs[r].length) are in non-decreasing order according to
+ *        the relation computed by $this.machineOrder.compare method])  and
+ *   [$this.tree is a loser tree over the first remaining entries of the
+ *    runs, with the run holding the first entry of all at $this.tree[0]]  and
+ *   $this.size = [sum of $this.runs[r].length - $this.cursors[r] over all r]
+ * </pre>
+ * @correspondence <pre>
+ * if $this.insertionMode then
+ *   this = (true, $this.machineOrder,
+ *           [multiset of entries in entries[0, length) of all buffers that
+ *            are values of $this.buffers])
+ * else
+ *   this = (false, $this.machineOrder,
+ *           [multiset of entries in $this.runs[r].entries[$this.cursors[r],
+ *            $this.runs[r].length) over all r])
+ * </pre>
+ *
+ * @author Roshan Varma & Quantez Merchant
+ *
+ */
+public class SortingMachine8<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of each thread's buffer.
+     */
+    private static final int INITIAL_BUFFER_LENGTH = 16;
+
+    /**
+     * Entry of the loser tree not yet holding a run.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Entries added by one thread.
+     *
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     */
+    private static final class Buffer<T> {
+
+        /**
+         * Entries; sorted in extraction mode.
+         */
+        private T[] entries;
+
+        /**
+         * Number of entries.
+         */
+        private int length;
+
+        /**
+         * No-argument constructor.
+         */
+        @SuppressWarnings("unchecked")
+        private Buffer() {
+            /*
+             * With "new T[...]" in place of "new Object[...]" it does not
+             * compile; as shown, it results in a warning about an unchecked
+             * cast, though it cannot fail.
+             */
+            this.entries = (T[]) (new Object[INITIAL_BUFFER_LENGTH]);
+            this.length = 0;
+        }
+
+    }
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode; volatile so that every thread sees the change to
+     * extraction mode.
+     */
+    private volatile boolean insertionMode;
+
+    /**
+     * Buffer of each thread that has added entries, in insertion mode.
+     */
+    private ConcurrentHashMap<Thread, Buffer<T>> buffers;
+
+    /**
+     * Buffers being merged, in extraction mode.
+     */
+    private Buffer<T>[] runs;
+
+    /**
+     * Index of the first remaining entry of each run, in extraction mode.
+     */
+    private int[] cursors;
+
+    /**
+     * Loser tree over the runs, in extraction mode: entry 0 holds the run
+     * with the first remaining entry of all, and every other entry holds the
+     * run that lost the match played at that node.
+     */
+    private int[] tree;
+
+    /**
+     * Number of entries, in extraction mode.
+     */
+    private int size;
+
+    /**
+     * Reports whether the first remaining entry of run {@code a} comes before
+     * that of run {@code b}; a run with no entries left comes after all
+     * others.
+     *
+     * @param a
+     *            one run
+     * @param b
+     *            the other run
+     * @return true iff run {@code a} wins the match against run {@code b}
+     * @requires [this.runs and this.cursors are set up for merging]
+     * @ensures <pre>
+     * beats = [run a has an entry left and (run b has none or the first entry
+     *          left in run a comes before the first entry left in run b)]
+     * </pre>
+     */
+    private boolean beats(int a, int b) {
+        boolean beats;
+        if (this.cursors[a] == this.runs[a].length) {
+            beats = false;
+        } else if (this.cursors[b] == this.runs[b].length) {
+            beats = true;
+        } else {
+            beats = this.machineOrder.compare(
+                    this.runs[a].entries[this.cursors[a]],
+                    this.runs[b].entries[this.cursors[b]]) < 0;
+        }
+        return beats;
+    }
+
+    /**
+     * Replays the matches on the path from run {@code r}'s leaf to the root of
+     * the loser tree. While the tree is being built, the run stops at the
+     * first node that does not yet hold a run and waits there.
+     *
+     * @param r
+     *            the run whose first remaining entry changed
+     * @updates this.tree
+     * @requires <pre>
+     * [this.runs and this.cursors are set up for merging]  and
+     * 0 <= r < |this.runs|
+     * </pre>
+     * @ensures <pre>
+     * [this.tree is a loser tree over the first remaining entries of the runs
+     *  that have reached it]
+     * </pre>
+     */
+    private void replay(int r) {
+        int k = this.runs.length;
+        int winner = r;
+        int node = (r + k) / 2;
+        while (node > 0 && winner != EMPTY) {
+            if (this.tree[node] == EMPTY) {
+                //Wait here for the other side of this match
+                this.tree[node] = winner;
+                winner = EMPTY;
+            } else if (this.beats(this.tree[node], winner)) {
+                //The run stored here wins and moves up; the other one stays
+                int loser = winner;
+                winner = this.tree[node];
+                this.tree[node] = loser;
+            }
+            node /= 2;
+        }
+        if (winner != EMPTY) {
+            this.tree[0] = winner;
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation. In insertion mode only the calling thread's
+     * buffer, if it has one, is checked, since other threads may be adding to
+     * theirs.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * if $this.insertionMode then
+     *   [every buffer that is a value of $this.buffers has
+     *    0 <= length <= |entries| and no null entries in entries[0, length)]
+     * else
+     *   $this.buffers = {}  and
+     *   |$this.cursors| = |$this.runs|  and
+     *   for all r: integer where (0 <= r < |$this.runs|)
+     *     (0 <= $this.cursors[r] <= $this.runs[r].length)  and
+     *   $this.size = [sum of $this.runs[r].length - $this.cursors[r] over
+     *     all r]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        if (this.insertionMode) {
+            Buffer<T> own = this.buffers.get(Thread.currentThread());
+            if (own != null) {
+                assert 0 <= own.length
+                        && own.length <= own.entries.length : ""
+                                + "Violation of: 0 <= length <= |entries|";
+                for (int i = 0; i < own.length; i++) {
+                    assert own.entries[i] != null : ""
+                            + "Violation of: [no null entries in"
+                            + " entries[0, length)]";
+                }
+            }
+        } else {
+            assert this.buffers.isEmpty() : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.buffers = {}";
+            assert this.cursors.length == this.runs.length : ""
+                    + "Violation of: |$this.cursors| = |$this.runs|";
+            int total = 0;
+            for (int r = 0; r < this.runs.length; r++) {
+                assert 0 <= this.cursors[r]
+                        && this.cursors[r] <= this.runs[r].length : ""
+                                + "Violation of: 0 <= $this.cursors[r] <="
+                                + " $this.runs[r].length";
+                for (int i = this.cursors[r]; i < this.runs[r].length; i++) {
+                    assert this.runs[r].entries[i] != null : ""
+                            + "Violation of: [no null entries in"
+                            + " entries[0, length)]";
+                }
+                total += this.runs[r].length - this.cursors[r];
+            }
+            assert this.size == total : ""
+                    + "Violation of: $this.size = [number of entries left in"
+                    + " $this.runs]";
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.buffers = {}
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.machineOrder = order;
+        this.buffers = new ConcurrentHashMap<Thread, Buffer<T>>();
+        this.runs = null;
+        this.cursors = null;
+        this.tree = null;
+        this.size = 0;
+        this.insertionMode = true;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine8(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine8<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine8<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine8<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine8<T> localSource = (SortingMachine8<T>) source;
+        this.machineOrder = localSource.machineOrder;
+        this.buffers = localSource.buffers;
+        this.runs = localSource.runs;
+        this.cursors = localSource.cursors;
+        this.tree = localSource.tree;
+        this.size = localSource.size;
+        this.insertionMode = localSource.insertionMode;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}. May be called by several
+     * threads at once.
+     *
+     * @param x
+     *            the element to be added
+     * @aliases reference x
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents union {x}
+     */
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        Thread thread = Thread.currentThread();
+        Buffer<T> own = this.buffers.get(thread);
+        //Register a buffer for the calling thread the first time it adds
+        if (own == null) {
+            own = new Buffer<T>();
+            this.buffers.put(thread, own);
+        }
+        //Grow the calling thread's buffer if it is full
+        if (own.length == own.entries.length) {
+            own.entries = Arrays.copyOf(own.entries, own.length * 2);
+        }
+        own.entries[own.length] = x;
+        own.length++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //Collect the buffers of all threads and sort them in parallel
+        /*
+         * With "new Buffer<T>[...]" in place of "new Buffer<?>[...]" it does
+         * not compile; as shown, it results in a warning about an unchecked
+         * cast, though it cannot fail.
+         */
+        @SuppressWarnings("unchecked")
+        Buffer<T>[] all = (Buffer<T>[]) this.buffers.values()
+                .toArray(new Buffer<?>[this.buffers.size()]);
+        //The runs now hold the buffers, so let go of the threads
+        this.buffers.clear();
+        Comparator<T> order = this.machineOrder;
+        Arrays.stream(all).parallel()
+                .forEach(b -> Arrays.sort(b.entries, 0, b.length, order));
+        this.runs = all;
+        this.cursors = new int[all.length];
+        this.size = 0;
+        for (Buffer<T> b : all) {
+            this.size += b.length;
+        }
+        //Build the loser tree by letting each run play its way up
+        this.tree = new int[Math.max(all.length, 1)];
+        Arrays.fill(this.tree, EMPTY);
+        for (int r = all.length - 1; r >= 0; r--) {
+            this.replay(r);
+        }
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //Take the first entry of the overall winner and replay its matches
+        int winner = this.tree[0];
+        Buffer<T> run = this.runs[winner];
+        T first = run.entries[this.cursors[winner]];
+        run.entries[this.cursors[winner]] = null;
+        this.cursors[winner]++;
+        this.size--;
+        this.replay(winner);
+
+        assert this.conventionHolds();
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}. In insertion mode, must
+     * not be called while other threads may be adding.
+     *
+     * @return the number of entries
+     * @ensures size = |this.contents|
+     */
+    @Override
+    public final int size() {
+        int s = this.size;
+        if (this.insertionMode) {
+            s = 0;
+            for (Buffer<T> b : this.buffers.values()) {
+                s += b.length;
+            }
+        }
+        assert this.conventionHolds();
+        return s;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine8Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine8}.
+     */
+    private final class SortingMachine8Iterator implements Iterator<T> {
+
+        /**
+         * Buffers to iterate over.
+         */
+        private Iterator<Buffer<T>> bufferIterator;
+
+        /**
+         * Buffer being iterated over, or null before the first.
+         */
+        private Buffer<T> current;
+
+        /**
+         * Index of the next entry of {@code current}.
+         */
+        private int index;
+
+        /**
+         * Index in {@code runs} of {@code current}, in extraction mode.
+         */
+        private int runIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine8Iterator() {
+            if (SortingMachine8.this.insertionMode) {
+                this.bufferIterator = SortingMachine8.this.buffers.values()
+                        .iterator();
+            } else {
+                this.bufferIterator = Arrays
+                        .asList(SortingMachine8.this.runs).iterator();
+            }
+            this.current = null;
+            this.index = 0;
+            this.runIndex = -1;
+            assert SortingMachine8.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            //Move on to the next buffer with entries left, if needed
+            while ((this.current == null || this.index == this.current.length)
+                    && this.bufferIterator.hasNext()) {
+                this.current = this.bufferIterator.next();
+                this.runIndex++;
+                this.index = 0;
+                if (!SortingMachine8.this.insertionMode) {
+                    this.index = SortingMachine8.this.cursors[this.runIndex];
+                }
+            }
+            boolean hasNext = this.current != null
+                    && this.index < this.current.length;
+            assert SortingMachine8.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = this.current.entries[this.index];
+            this.index++;
+            assert SortingMachine8.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
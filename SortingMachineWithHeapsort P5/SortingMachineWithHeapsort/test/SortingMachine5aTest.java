@@ -1,4 +1,12 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
 
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
@@ -8,6 +16,11 @@ import components.sortingmachine.SortingMachine1L;
  */
 public final class SortingMachine5aTest extends SortingMachineTest {
 
+    /**
+     * Comparator instance to be used in the test cases below.
+     */
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
     @Override
     protected SortingMachine<String> constructorTest(Comparator<String> order) {
         return new SortingMachine5a<String>(order);
@@ -18,4 +31,157 @@ public final class SortingMachine5aTest extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /*
+     * Test cases for batch extraction
+     */
+
+    @Test
+    public void testRemoveFirstBatch() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        String[] words = { "kiwi", "fig", "plum", "apple", "lime" };
+        for (String w : words) {
+            m.add(w);
+        }
+        mExpected.add("lime");
+        mExpected.add("plum");
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        String[] dest = { "x", "x", "x", "x" };
+        /*
+         * Call method under test
+         */
+        m.removeFirst(3, dest);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertArrayEquals(new String[] { "apple", "fig", "kiwi", "x" }, dest);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveFirstBatchNone() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        m.add("green");
+        mExpected.add("green");
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        String[] dest = new String[0];
+        /*
+         * Call method under test
+         */
+        m.removeFirst(0, dest);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testDrainSorted() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        String[] words = { "kiwi", "fig", "plum", "apple", "lime" };
+        for (String w : words) {
+            m.add(w);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        List<String> drained = new ArrayList<String>();
+        /*
+         * Call method under test
+         */
+        m.drainSorted(drained::add);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(Arrays.asList("apple", "fig", "kiwi", "lime", "plum"),
+                drained);
+        assertEquals(mExpected, m);
+    }
+
+    /*
+     * Test cases for metrics
+     */
+
+    @Test
+    public void testMetricsDisabled() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(ORDER);
+        m.add("green");
+        m.add("blue");
+        m.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        SortingMachine5a.Metrics metrics = m.metrics();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(null, metrics);
+    }
+
+    @Test
+    public void testMetricsCountSort() {
+        /*
+         * Set up variables
+         */
+        final int n = 100;
+        SortingMachine5a<String> m = new SortingMachine5a<String>(ORDER);
+        m.enableMetrics();
+        for (int i = 0; i < n; i++) {
+            m.add(String.format("%03d", (i * 37) % n));
+        }
+        /*
+         * Call method under test
+         */
+        m.changeToExtractionMode();
+        for (int i = 0; i < n; i++) {
+            assertEquals(String.format("%03d", i), m.removeFirst());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        SortingMachine5a.Metrics metrics = m.metrics();
+        assertEquals(true, metrics.comparisons() >= n);
+        assertEquals(true, metrics.exchanges() > 0);
+        assertEquals(true, metrics.siftLevels() > 0);
+        assertEquals(true, metrics.extractionNanos() > 0);
+    }
+
+    @Test
+    public void testMetricsDisable() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        m.enableMetrics();
+        m.add("green");
+        mExpected.add("green");
+        mExpected.add("blue");
+        /*
+         * Call method under test
+         */
+        m.disableMetrics();
+        m.add("blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(null, m.metrics());
+        assertEquals(mExpected, m);
+    }
+
 }
@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using capacity 4.
+ * The relevance of 4 is that it is the largest number of entries used by the
+ * inherited test cases, so they fill the bounded heap without discarding
+ * anything; the test cases below add more entries than that.
+ */
+public final class SortingMachine5aTest4 extends SortingMachineTest {
+
+    /**
+     * Capacity to be used in tests.
+     */
+    private static final int TEST_CAPACITY = 4;
+
+    /**
+     * Comparator instance to be used in the test cases below.
+     */
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order, TEST_CAPACITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /*
+     * Test cases for entries beyond the capacity
+     */
+
+    @Test
+    public void testAddDiscardsEntryAfterAll() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        m.add("blue");
+        m.add("green");
+        m.add("red");
+        m.add("orange");
+        mExpected.add("blue");
+        mExpected.add("green");
+        mExpected.add("red");
+        mExpected.add("orange");
+        /*
+         * Call method under test
+         */
+        m.add("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testAddReplacesLastEntry() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        m.add("yellow");
+        m.add("green");
+        m.add("red");
+        m.add("orange");
+        mExpected.add("green");
+        mExpected.add("red");
+        mExpected.add("orange");
+        mExpected.add("blue");
+        /*
+         * Call method under test
+         */
+        m.add("blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveFirstAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        String[] words = { "kiwi", "fig", "plum", "apple", "lime", "date",
+                "pear", "cherry", "banana", "grape" };
+        for (String w : words) {
+            m.add(w);
+        }
+        m.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(TEST_CAPACITY, m.size());
+        assertEquals("apple", m.removeFirst());
+        assertEquals("banana", m.removeFirst());
+        assertEquals("cherry", m.removeFirst());
+        assertEquals("date", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+}
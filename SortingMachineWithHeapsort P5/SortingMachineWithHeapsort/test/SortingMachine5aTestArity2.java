@@ -0,0 +1,29 @@
+import java.util.Comparator;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using a heap of
+ * arity 2. The relevance of 2 is that it is the classic binary heap, which is
+ * no longer the default.
+ */
+public final class SortingMachine5aTestArity2 extends SortingMachineTest {
+
+    /**
+     * Heap arity to be used in tests.
+     */
+    private static final int TEST_ARITY = 2;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order,
+                SortingMachine5a.ExtractionStrategy.HEAPSORT, TEST_ARITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+}
@@ -0,0 +1,29 @@
+import java.util.Comparator;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using a heap of
+ * arity 8. The relevance of 8 is that it is the widest arity the heap is
+ * meant for, so each sift-down step compares a full run of eight children.
+ */
+public final class SortingMachine5aTestArity8 extends SortingMachineTest {
+
+    /**
+     * Heap arity to be used in tests.
+     */
+    private static final int TEST_ARITY = 8;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order,
+                SortingMachine5a.ExtractionStrategy.HEAPSORT, TEST_ARITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+}
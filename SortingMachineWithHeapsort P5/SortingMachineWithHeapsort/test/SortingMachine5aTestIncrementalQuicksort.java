@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using the
+ * {@code INCREMENTAL_QUICKSORT} extraction strategy.
+ */
+public final class SortingMachine5aTestIncrementalQuicksort
+        extends SortingMachineTest {
+
+    /**
+     * Number of entries large enough for blocks to be partitioned several
+     * times before they are short enough for insertion sort.
+     */
+    private static final int LARGE_SIZE = 2000;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order,
+                SortingMachine5a.ExtractionStrategy.INCREMENTAL_QUICKSORT);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /*
+     * Test cases for many entries
+     */
+
+    @Test
+    public void testRemoveFirstAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            m.add(String.format("%06d", (i * 7) % LARGE_SIZE));
+        }
+        m.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertEquals(String.format("%06d", i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testRemoveFirstManyDuplicates() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(
+                String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            m.add(Integer.toString(i % 3));
+            mExpected.add(Integer.toString(i % 3));
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < LARGE_SIZE / 2; i++) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveFirstBatchAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(
+                String.CASE_INSENSITIVE_ORDER,
+                SortingMachine5a.ExtractionStrategy.INCREMENTAL_QUICKSORT);
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            m.add(String.format("%06d", i));
+        }
+        m.changeToExtractionMode();
+        String[] dest = new String[LARGE_SIZE / 2];
+        String[] destExpected = new String[LARGE_SIZE / 2];
+        for (int i = 0; i < LARGE_SIZE / 2; i++) {
+            destExpected[i] = String.format("%06d", i);
+        }
+        /*
+         * Call method under test
+         */
+        m.removeFirst(LARGE_SIZE / 2, dest);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertArrayEquals(destExpected, dest);
+        assertEquals(LARGE_SIZE - LARGE_SIZE / 2, m.size());
+        assertEquals(String.format("%06d", LARGE_SIZE / 2), m.removeFirst());
+    }
+
+}
@@ -0,0 +1,88 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using the
+ * {@code PARALLEL_SORT} extraction strategy.
+ */
+public final class SortingMachine5aTestParallelSort extends SortingMachineTest {
+
+    /**
+     * Number of entries large enough for the sort to actually be split across
+     * threads.
+     */
+    private static final int LARGE_SIZE = 20000;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order,
+                SortingMachine5a.ExtractionStrategy.PARALLEL_SORT);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /*
+     * Test cases for many entries
+     */
+
+    @Test
+    public void testRemoveFirstAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            m.add(String.format("%06d", i));
+        }
+        m.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals("000000", m.removeFirst());
+        assertEquals("000001", m.removeFirst());
+        assertEquals("000002", m.removeFirst());
+        assertEquals(LARGE_SIZE - 3, m.size());
+    }
+
+    @Test
+    public void testRemoveFirstBatchAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(
+                String.CASE_INSENSITIVE_ORDER,
+                SortingMachine5a.ExtractionStrategy.PARALLEL_SORT);
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            m.add(String.format("%06d", i));
+        }
+        m.changeToExtractionMode();
+        String[] dest = new String[LARGE_SIZE / 2];
+        String[] destExpected = new String[LARGE_SIZE / 2];
+        for (int i = 0; i < LARGE_SIZE / 2; i++) {
+            destExpected[i] = String.format("%06d", i);
+        }
+        /*
+         * Call method under test
+         */
+        m.removeFirst(LARGE_SIZE / 2, dest);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertArrayEquals(destExpected, dest);
+        assertEquals(LARGE_SIZE - LARGE_SIZE / 2, m.size());
+        assertEquals(String.format("%06d", LARGE_SIZE / 2), m.removeFirst());
+    }
+
+}
@@ -0,0 +1,188 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5b}.
+ */
+public final class SortingMachine5bTest extends SortingMachineTest {
+
+    /**
+     * Comparator instance to be used in the test cases below.
+     */
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5b<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /*
+     * Test cases for priority-queue methods
+     */
+
+    @Test
+    public void testAddInExtractionMode() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        m.add("green");
+        m.add("red");
+        m.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        m.add("blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(false, m.isInInsertionMode());
+        assertEquals("blue", m.removeFirst());
+        assertEquals("green", m.removeFirst());
+        m.add("orange");
+        assertEquals("orange", m.removeFirst());
+        assertEquals("red", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5b<String> m = new SortingMachine5b<String>(ORDER);
+        m.add("green");
+        SortingMachine5b.Handle<String> h = m.insert("yellow");
+        m.add("red");
+        m.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        m.decreaseKey(h, "blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("blue", h.entry());
+        assertEquals("blue", m.removeFirst());
+        assertEquals(false, m.contains(h));
+        assertEquals("green", m.removeFirst());
+    }
+
+    @Test
+    public void testDecreaseKeyInInsertionMode() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5b<String> m = new SortingMachine5b<String>(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        m.add("green");
+        SortingMachine5b.Handle<String> h = m.insert("yellow");
+        mExpected.add("green");
+        mExpected.add("blue");
+        /*
+         * Call method under test
+         */
+        m.decreaseKey(h, "blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveHandle() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5b<String> m = new SortingMachine5b<String>(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        m.add("green");
+        SortingMachine5b.Handle<String> h = m.insert("blue");
+        m.add("red");
+        m.add("yellow");
+        m.changeToExtractionMode();
+        mExpected.add("green");
+        mExpected.add("red");
+        mExpected.add("yellow");
+        mExpected.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        String removed = m.remove(h);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("blue", removed);
+        assertEquals(false, m.contains(h));
+        assertEquals(mExpected, m);
+        assertEquals("green", m.removeFirst());
+    }
+
+    @Test
+    public void testContainsAfterClear() {
+        /*
+         * Set up variables
+         */
+        SortingMachine5b<String> m = new SortingMachine5b<String>(ORDER);
+        SortingMachine5b.Handle<String> h = m.insert("green");
+        /*
+         * Call method under test
+         */
+        m.clear();
+        m.add("red");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(false, m.contains(h));
+    }
+
+    @Test
+    public void testInterleavedOperations() {
+        /*
+         * Set up variables
+         */
+        final int n = 500;
+        SortingMachine5b<Integer> m = new SortingMachine5b<Integer>(
+                Comparator.<Integer> naturalOrder());
+        m.changeToExtractionMode();
+        @SuppressWarnings("unchecked")
+        SortingMachine5b.Handle<Integer>[] handles =
+                (SortingMachine5b.Handle<Integer>[]) new SortingMachine5b.Handle<?>[n];
+        for (int i = 0; i < n; i++) {
+            handles[i] = m.insert(n + (i * 37) % n);
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < n; i += 2) {
+            m.decreaseKey(handles[i], handles[i].entry() - n);
+        }
+        for (int i = 1; i < n; i += 4) {
+            m.remove(handles[i]);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        int previous = Integer.MIN_VALUE;
+        int count = 0;
+        while (m.size() > 0) {
+            int x = m.removeFirst();
+            assertEquals(true, previous <= x);
+            previous = x;
+            count++;
+        }
+        assertEquals(n - n / 4, count);
+    }
+
+}
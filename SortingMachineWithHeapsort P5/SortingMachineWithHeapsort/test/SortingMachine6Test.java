@@ -0,0 +1,96 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine6} using run capacity
+ * 2. The relevance of 2 is that the inherited test cases with more than one
+ * entry then spill at least one run, and those with an odd number of entries
+ * leave one in memory.
+ */
+public final class SortingMachine6Test extends SortingMachineTest {
+
+    /**
+     * Run capacity to be used in tests.
+     */
+    private static final int TEST_RUN_CAPACITY = 2;
+
+    /**
+     * Number of entries large enough for the runs to be merged in more than
+     * one pass.
+     */
+    private static final int LARGE_SIZE = 1000;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine6<String>(order, TEST_RUN_CAPACITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /*
+     * Test cases for many runs
+     */
+
+    @Test
+    public void testRemoveFirstAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            m.add(String.format("%06d", (i * 7) % LARGE_SIZE));
+        }
+        m.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertEquals(String.format("%06d", i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testEqualsAfterSomeRemoves() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(
+                String.CASE_INSENSITIVE_ORDER);
+        String[] words = { "kiwi", "fig", "plum", "apple", "lime", "date",
+                "pear" };
+        for (String w : words) {
+            m.add(w);
+            mExpected.add(w);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        String first = m.removeFirst();
+        String second = m.removeFirst();
+        String firstExpected = mExpected.removeFirst();
+        String secondExpected = mExpected.removeFirst();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(firstExpected, first);
+        assertEquals(secondExpected, second);
+        assertEquals(mExpected, m);
+    }
+
+}
@@ -0,0 +1,318 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * JUnit test fixture for {@code SortingMachine7<Long>}'s constructor and
+ * kernel methods. {@code SortingMachine7} orders entries by a key function
+ * rather than a {@code Comparator<String>}, so it does not share the
+ * {@code SortingMachineTest} test cases.
+ *
+ * @author Roshan Varma & Quantez Merchant
+ *
+ */
+public final class SortingMachine7Test {
+
+    /**
+     * Key function to be used in all test cases.
+     */
+    private static final ToLongFunction<Long> KEY = Long::longValue;
+
+    /**
+     * Order matching {@code KEY}, for the reference implementation.
+     */
+    private static final Comparator<Long> ORDER = Comparator.comparingLong(KEY);
+
+    /**
+     * Creates and returns a {@code SortingMachine7<Long>} with the given
+     * entries and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the {@code SortingMachine}
+     * @return the constructed {@code SortingMachine}
+     * @ensures <pre>
+     * createFromArgsTest = (insertionMode, ORDER, [multiset of entries in args])
+     * </pre>
+     */
+    private SortingMachine<Long> createFromArgsTest(boolean insertionMode,
+            long... args) {
+        SortingMachine<Long> sm = new SortingMachine7<Long>(KEY);
+        for (int i = 0; i < args.length; i++) {
+            sm.add(args[i]);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /**
+     * Creates and returns a {@code SortingMachine<Long>} of the reference
+     * implementation type with the given entries and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the {@code SortingMachine}
+     * @return the constructed {@code SortingMachine}
+     * @ensures <pre>
+     * createFromArgsRef = (insertionMode, ORDER, [multiset of entries in args])
+     * </pre>
+     */
+    private SortingMachine<Long> createFromArgsRef(boolean insertionMode,
+            long... args) {
+        SortingMachine<Long> sm = new SortingMachine1L<Long>(ORDER);
+        for (int i = 0; i < args.length; i++) {
+            sm.add(args[i]);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /*
+     * Test case for constructors
+     */
+
+    @Test
+    public void testConstructor() {
+        /*
+         * Set up variables and call method under test
+         */
+        SortingMachine<Long> m = new SortingMachine7<Long>(KEY);
+        SortingMachine<Long> mExpected = new SortingMachine1L<Long>(ORDER);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    /*
+     * Test cases for kernel methods
+     */
+
+    @Test
+    public void testAddEmpty() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(true);
+        SortingMachine<Long> mExpected = this.createFromArgsRef(true, 7);
+        /*
+         * Call method under test
+         */
+        m.add(7L);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testAddPastInitialLength() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(true);
+        SortingMachine<Long> mExpected = this.createFromArgsRef(true);
+        /*
+         * Call method under test
+         */
+        for (long i = 0; i < 40; i++) {
+            m.add(i);
+            mExpected.add(i);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testChangeToExtractionModeEmpty() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(true);
+        SortingMachine<Long> mExpected = this.createFromArgsRef(false);
+        /*
+         * Call method under test
+         */
+        m.changeToExtractionMode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testChangeToExtractionMode() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(true, 300, 2, 70000);
+        SortingMachine<Long> mExpected = this.createFromArgsRef(false, 2, 300,
+                70000);
+        /*
+         * Call method under test
+         */
+        m.changeToExtractionMode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveFirstOne() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(false, 5);
+        SortingMachine<Long> mExpected = this.createFromArgsRef(false);
+        /*
+         * Call method under test
+         */
+        long first = m.removeFirst();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(5, first);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveFirstDuplicates() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(false, 9, 4, 9, 4);
+        SortingMachine<Long> mExpected = this.createFromArgsRef(false, 4, 9,
+                9);
+        /*
+         * Call method under test
+         */
+        long first = m.removeFirst();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(4, first);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testRemoveFirstNegativeKeys() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(false, 3, -1, 0, -256,
+                255);
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(-256, (long) m.removeFirst());
+        assertEquals(-1, (long) m.removeFirst());
+        assertEquals(0, (long) m.removeFirst());
+        assertEquals(3, (long) m.removeFirst());
+        assertEquals(255, (long) m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testRemoveFirstExtremeKeys() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(false, Long.MAX_VALUE,
+                0, Long.MIN_VALUE, 1L << 40, -(1L << 40));
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(Long.MIN_VALUE, (long) m.removeFirst());
+        assertEquals(-(1L << 40), (long) m.removeFirst());
+        assertEquals(0, (long) m.removeFirst());
+        assertEquals(1L << 40, (long) m.removeFirst());
+        assertEquals(Long.MAX_VALUE, (long) m.removeFirst());
+    }
+
+    @Test
+    public void testRemoveFirstByComputedKey() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = new SortingMachine7<String>(String::length);
+        m.add("green");
+        m.add("red");
+        m.add("yellow");
+        m.add("blue");
+        m.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals("red", m.removeFirst());
+        assertEquals("blue", m.removeFirst());
+        assertEquals("green", m.removeFirst());
+        assertEquals("yellow", m.removeFirst());
+    }
+
+    @Test
+    public void testRemoveFirstAfterManyAdds() {
+        /*
+         * Set up variables
+         */
+        final int n = 10000;
+        SortingMachine<Long> m = this.createFromArgsTest(true);
+        for (long i = 0; i < n; i++) {
+            m.add((i * 7919) % n - n / 2);
+        }
+        m.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        for (long i = 0; i < n; i++) {
+            assertEquals(i - n / 2, (long) m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testIsInInsertionModeFalse() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(false, 1, 2);
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(false, m.isInInsertionMode());
+    }
+
+    @Test
+    public void testOrder() {
+        /*
+         * Set up variables
+         */
+        SortingMachine<Long> m = this.createFromArgsTest(true);
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        assertEquals(true, m.order().compare(-5L, 3L) < 0);
+        assertEquals(0, m.order().compare(3L, 3L));
+    }
+
+}
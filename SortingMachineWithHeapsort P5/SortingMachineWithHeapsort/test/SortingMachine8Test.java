@@ -0,0 +1,108 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine8}.
+ */
+public final class SortingMachine8Test extends SortingMachineTest {
+
+    /**
+     * Number of producer threads used in the test cases below.
+     */
+    private static final int PRODUCERS = 4;
+
+    /**
+     * Number of entries added by each producer thread.
+     */
+    private static final int ENTRIES_PER_PRODUCER = 2000;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine8<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /*
+     * Test cases for concurrent producers
+     */
+
+    @Test
+    public void testAddFromManyThreads() throws InterruptedException {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int first = p;
+            producers[p] = new Thread(() -> {
+                for (int i = first; i < PRODUCERS
+                        * ENTRIES_PER_PRODUCER; i += PRODUCERS) {
+                    m.add(String.format("%06d", i));
+                }
+            });
+        }
+        /*
+         * Call method under test
+         */
+        for (Thread t : producers) {
+            t.start();
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        m.changeToExtractionMode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(PRODUCERS * ENTRIES_PER_PRODUCER, m.size());
+        for (int i = 0; i < PRODUCERS * ENTRIES_PER_PRODUCER; i++) {
+            assertEquals(String.format("%06d", i), m.removeFirst());
+        }
+    }
+
+    @Test
+    public void testAddFromOtherThreadAndThisOne() throws InterruptedException {
+        /*
+         * Set up variables
+         */
+        SortingMachine<String> m = this.constructorTest(
+                String.CASE_INSENSITIVE_ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(
+                String.CASE_INSENSITIVE_ORDER);
+        Thread producer = new Thread(() -> {
+            m.add("green");
+            m.add("blue");
+        });
+        mExpected.add("green");
+        mExpected.add("blue");
+        mExpected.add("red");
+        mExpected.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        producer.start();
+        producer.join();
+        m.add("red");
+        m.changeToExtractionMode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+        assertEquals("blue", m.removeFirst());
+        assertEquals("green", m.removeFirst());
+        assertEquals("red", m.removeFirst());
+    }
+
+}